@@ -7,6 +7,7 @@ import android.support.v7.widget.GridLayoutManager;
 import android.support.v7.widget.RecyclerView;
 import android.text.Editable;
 import android.text.TextWatcher;
+import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.widget.EditText;
@@ -15,6 +16,8 @@ import com.example.images.di.DependencyResolver;
 import com.example.images.features.search.ui.ImageSearchPresenter;
 import com.example.images.features.search.ui.ImageSearchView;
 import com.example.images.features.search.ui.android.ImagesAdapter;
+import com.example.pipe.Metrics;
+import com.example.pipe.MetricsSnapshot;
 
 import java.util.Collections;
 
@@ -22,6 +25,8 @@ import static java.util.Collections.*;
 
 public class MainActivity extends AppCompatActivity implements ImageSearchView {
 
+    private static final String TAG = "MainActivity";
+
     private ImageSearchPresenter presenter;
     private ImagesAdapter adapter;
 
@@ -109,6 +114,16 @@ public class MainActivity extends AppCompatActivity implements ImageSearchView {
         super.onStop();
 
         presenter.stop();
+
+        if (BuildConfig.DEBUG) {
+            dumpPipeMetrics();
+        }
+    }
+
+    private void dumpPipeMetrics() {
+        for (MetricsSnapshot snapshot : Metrics.snapshot()) {
+            Log.d(TAG, snapshot.toString());
+        }
     }
 
     @Override
@@ -118,10 +133,6 @@ public class MainActivity extends AppCompatActivity implements ImageSearchView {
 
     @Override
     public void updateState(@NonNull State state) {
-        runOnUiThread(() -> updateStateOnMainThread(state));
-    }
-
-    private void updateStateOnMainThread(State state) {
         updateVisibility(state);
         updateAdapterItems(state);
     }
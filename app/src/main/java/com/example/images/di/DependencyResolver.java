@@ -7,6 +7,7 @@ import com.example.images.features.search.data.repository.flickr.FlickrImagesRep
 import com.example.images.features.search.data.repository.flickr.ResponseDeserializer;
 import com.example.images.features.search.domain.ImageSearchInteractor;
 import com.example.images.features.search.ui.ImageSearchPresenter;
+import com.example.images.util.concurrent.MainThreadExecutor;
 import com.example.images.util.concurrent.ThrottlingExecutor;
 
 import java.util.concurrent.Executor;
@@ -21,7 +22,8 @@ public class DependencyResolver {
 
     public ImageSearchPresenter provideImageSearchPresenter() {
         return new ImageSearchPresenter(
-                provideImageSearchInteractor()
+                provideImageSearchInteractor(),
+                new MainThreadExecutor()
         );
     }
 
@@ -19,7 +19,9 @@ public interface ImagesRepository {
      *
      * @param query      search query.
      * @param pageNumber number of the page to load.
-     * @return {@link Pipe} which would emit the value as soon as it is available.
+     * @return {@link Pipe} which would emit the value as soon as it is available. The request is
+     * made only once the pipe is subscribed to, so a pipe nobody subscribes to costs nothing.
+     * Unsubscribing from it before the value arrives cancels the request, if possible.
      */
     Pipe<Result<Paginated<List<Image>>>> queryImages(
             @NonNull String query,
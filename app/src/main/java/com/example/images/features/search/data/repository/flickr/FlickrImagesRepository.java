@@ -6,22 +6,25 @@ import com.example.images.features.search.data.Paginated;
 import com.example.images.features.search.data.Result;
 import com.example.images.features.search.data.repository.ImagesRepository;
 import com.example.images.util.IoUtils;
+import com.example.pipe.Action1;
 import com.example.pipe.Pipe;
-import com.example.pipe.Source;
 
 import org.json.JSONException;
 
 import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.io.UnsupportedEncodingException;
 import java.net.HttpURLConnection;
 import java.net.MalformedURLException;
+import java.net.SocketTimeoutException;
 import java.net.URL;
 import java.net.URLEncoder;
 import java.util.List;
 import java.util.Locale;
 import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
 import static com.example.images.features.search.data.Result.error;
 import static com.example.images.features.search.data.Result.success;
@@ -34,6 +37,12 @@ public class FlickrImagesRepository implements ImagesRepository {
     private static final String API_KEY = "3e7cc266ae2b0e0d78e279ce8e361736";
     private static final String URL = "https://api.flickr.com/services/rest/?method=flickr.photos.search&api_key=%s&format=json&nojsoncallback=1&safe_search=1&page=%d&text=%s;";
 
+    /**
+     * Overall deadline of a request, on top of the connect and read timeouts of the connection,
+     * which only limit single steps of it.
+     */
+    private static final long REQUEST_TIMEOUT_SECONDS = 30;
+
     private final Executor executor;
     private final ResponseDeserializer responseDeserializer;
 
@@ -45,36 +54,17 @@ public class FlickrImagesRepository implements ImagesRepository {
     @Override
     public Pipe<Result<Paginated<List<Image>>>> queryImages(@NonNull String query,
                                                             int pageNumber) {
-        Source<Result<Paginated<List<Image>>>> resultSource = new Source<>();
-
-        executor.execute(() -> {
-            java.net.URL url = buildUrl(query, pageNumber);
-
-            try {
-                String result = performGetRequest(url);
+        return Pipe.<Result<Paginated<List<Image>>>>defer(emitter -> {
+            QueryTask task = new QueryTask(buildUrl(query, pageNumber), emitter);
 
-                resultSource.push(
-                        success(responseDeserializer.parseResult(result))
-                );
-            } catch (IOException | JSONException e) {
-                resultSource.push(
-                        error(e)
-                );
-            }
-        });
+            executor.execute(task);
 
-        return Pipe.fromSource(resultSource);
-    }
-
-    private String performGetRequest(URL url) throws IOException {
-        HttpURLConnection urlConnection = (HttpURLConnection) url.openConnection();
-        try {
-            InputStream in = new BufferedInputStream(urlConnection.getInputStream());
-
-            return IoUtils.readToString(in);
-        } finally {
-            urlConnection.disconnect();
-        }
+            return task::cancel;
+        }).timeout(
+                REQUEST_TIMEOUT_SECONDS,
+                TimeUnit.SECONDS,
+                error(new SocketTimeoutException("No response in " + REQUEST_TIMEOUT_SECONDS + " seconds"))
+        );
     }
 
     @NonNull
@@ -92,4 +82,68 @@ public class FlickrImagesRepository implements ImagesRepository {
         }
     }
 
+    /**
+     * Performs a single request. Cancelling it closes the connection, which frees the thread if it
+     * is blocked on reading the response.
+     */
+    private final class QueryTask implements Runnable {
+
+        private final URL url;
+        private final Action1<Result<Paginated<List<Image>>>> emitter;
+
+        private volatile boolean cancelled;
+        private volatile HttpURLConnection connection;
+
+        QueryTask(URL url, Action1<Result<Paginated<List<Image>>>> emitter) {
+            this.url = url;
+            this.emitter = emitter;
+        }
+
+        @Override
+        public void run() {
+            if (cancelled) {
+                return;
+            }
+
+            try {
+                String result = performGetRequest();
+
+                emitter.call(
+                        success(responseDeserializer.parseResult(result))
+                );
+            } catch (IOException | JSONException e) {
+                emitter.call(
+                        error(e)
+                );
+            }
+        }
+
+        private String performGetRequest() throws IOException {
+            HttpURLConnection urlConnection = IoUtils.openConnection(url);
+            connection = urlConnection;
+
+            try {
+                if (cancelled) {
+                    throw new InterruptedIOException("Request was cancelled");
+                }
+
+                InputStream in = new BufferedInputStream(urlConnection.getInputStream());
+
+                return IoUtils.readToString(in);
+            } finally {
+                urlConnection.disconnect();
+            }
+        }
+
+        void cancel() {
+            cancelled = true;
+
+            HttpURLConnection current = connection;
+            if (current != null) {
+                current.disconnect();
+            }
+        }
+
+    }
+
 }
@@ -5,13 +5,20 @@ import android.support.annotation.NonNull;
 import com.example.images.features.search.data.repository.ImagesRepository;
 import com.example.images.features.search.data.Paginated;
 import com.example.images.features.search.data.Result;
+import com.example.pipe.Backoff;
+import com.example.pipe.BooleanPipe;
+import com.example.pipe.BooleanSource;
+import com.example.pipe.ConflatingSource;
+import com.example.pipe.HashedWheelScheduler;
 import com.example.pipe.Pipe;
+import com.example.pipe.Pipes;
+import com.example.pipe.Scheduler;
 import com.example.pipe.Source;
 
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.example.images.features.search.data.repository.ImagesRepository.Image;
@@ -24,23 +31,47 @@ import static java.util.Collections.emptyList;
  */
 public class ImageSearchInteractor {
 
+    /**
+     * Failed requests are retried after 0.5, 1, 2 and 4 seconds at most, which absorbs short
+     * network outages without flooding the API.
+     */
+    private static final Backoff PAGE_REQUEST_BACKOFF = Backoff.exponential(500, 4000, TimeUnit.MILLISECONDS, 4)
+            .instrumented("ImageSearchInteractor.pageRequests");
+
     private final ImagesRepository repository;
+    private final Backoff backoff;
+    private final Scheduler scheduler;
 
-    private final Source<Boolean> morePagesAvailable = new Source<>(false);
-    private final Source<Boolean> loadingResults = new Source<>(false);
-    private final Source<Boolean> loadingNextPage = new Source<>(false);
-    private final Source<Result<List<Image>>> searchResults = new Source<>(
+    private final BooleanSource morePagesAvailable = new BooleanSource(false);
+    private final BooleanSource loadingResults = new BooleanSource(false);
+    private final BooleanSource loadingNextPage = new BooleanSource(false);
+    private final Source<Result<List<Image>>> searchResults = new ConflatingSource<>(
             Result.success(emptyList())
     );
 
     private String currentQuery;
-    private final AtomicInteger currentPage = new AtomicInteger(1);
+    private final AtomicInteger currentPage = new AtomicInteger(0);
     private final List<Image> currentResult = new ArrayList<>();
 
-    private final Set<Pipe.Subscription> activeSubscriptions = new HashSet<>();
+    /**
+     * First pages and next pages go through the same stream, so that each request cancels the one
+     * in flight, whatever its kind.
+     */
+    private final Source<PageRequest> pageRequests = new Source<>();
+    private Pipe<PageResponse>.Subscription pageResponses;
 
     public ImageSearchInteractor(ImagesRepository repository) {
+        this(repository, PAGE_REQUEST_BACKOFF, HashedWheelScheduler.shared());
+    }
+
+    /**
+     * @param backoff   decides how failed requests are retried.
+     * @param scheduler scheduler on which the retries are made.
+     */
+    public ImageSearchInteractor(ImagesRepository repository, Backoff backoff, Scheduler scheduler) {
         this.repository = repository;
+        this.backoff = backoff;
+        this.scheduler = scheduler;
     }
 
     /**
@@ -49,27 +80,95 @@ public class ImageSearchInteractor {
      * Results are being emitted in {@link #searchResults()}.
      */
     public void search(@NonNull String query) {
-        stopActiveSubscriptions();
-
         currentQuery = query;
-        loadingResults.push(true);
+        currentPage.set(0);
 
-        activeSubscriptions.add(
-                repository.queryImages(query, 1)
-                        .subscribe(this::onQueryResult)
-        );
+        request(new PageRequest(query, 1));
     }
 
-    private void onQueryResult(Result<Paginated<List<Image>>> result) {
-        loadingResults.push(false);
+    /**
+     * Requests new page with results if they are available. While the first page of the current
+     * query is being loaded, it is the next page to show, so its request is made again.
+     */
+    public void requestNextPage() {
+        verifyQueryIsNotEmpty();
+
+        request(new PageRequest(currentQuery, currentPage.get() + 1));
+    }
+
+    /**
+     * Cancels the request in flight and stops listening to the results. Searching again starts
+     * listening anew.
+     */
+    public void dispose() {
+        if (pageResponses != null) {
+            pageResponses.unsubscribe();
+            pageResponses = null;
+        }
+    }
+
+    private void request(PageRequest request) {
+        if (pageResponses == null) {
+            pageResponses = Pipe.fromSource(pageRequests)
+                    .switchMap(this::loadPage)
+                    .subscribe(this::onPageResponse);
+        }
+
+        pageRequests.push(request);
+    }
+
+    /**
+     * Only the latest request is being listened to, previous one is cancelled. Loading flag of the
+     * request is set while it is in flight and cleared together with its result, or once it is
+     * cancelled. Failed requests are retried, only the last failure is reported.
+     */
+    private Pipe<PageResponse> loadPage(PageRequest request) {
+        BooleanSource loading = request.isFirstPage() ? loadingResults : loadingNextPage;
+
+        return Pipe.defer(emitter -> {
+            AtomicBoolean answered = new AtomicBoolean();
+
+            loading.push(true);
+
+            Pipe<Result<Paginated<List<Image>>>>.Subscription subscription = repository
+                    .queryImages(request.query, request.pageNumber)
+                    .retry(result -> !result.isSuccess(), backoff, scheduler)
+                    .subscribe(result -> {
+                        if (answered.compareAndSet(false, true)) {
+                            emitter.call(new PageResponse(request, result));
+                        }
+                    });
+
+            return () -> {
+                subscription.unsubscribe();
+
+                if (answered.compareAndSet(false, true)) {
+                    loading.push(false);
+                }
+            };
+        });
+    }
 
-        if (result.isSuccess()) {
-            onQuerySuccess(result);
+    private void onPageResponse(PageResponse response) {
+        if (response.request.isFirstPage()) {
+            onQueryResult(response.result);
         } else {
-            onQueryFailure(result);
+            onNextPageResult(response.result);
         }
     }
 
+    private void onQueryResult(Result<Paginated<List<Image>>> result) {
+        Pipes.transaction(() -> {
+            loadingResults.push(false);
+
+            if (result.isSuccess()) {
+                onQuerySuccess(result);
+            } else {
+                onQueryFailure(result);
+            }
+        });
+    }
+
     private void onQuerySuccess(Result<Paginated<List<Image>>> result) {
         replaceCurrentResult(result);
 
@@ -82,6 +181,7 @@ public class ImageSearchInteractor {
 
     private void replaceCurrentResult(Result<Paginated<List<Image>>> result) {
         synchronized (currentResult) {
+            currentPage.set(1);
             currentResult.clear();
             currentResult.addAll(result.value.value);
         }
@@ -95,25 +195,14 @@ public class ImageSearchInteractor {
         morePagesAvailable.push(false);
     }
 
-    /**
-     * Requests new page with results if they are available.
-     */
-    public void requestNextPage() {
-        verifyQueryIsNotEmpty();
-
-        loadingNextPage.push(true);
-        activeSubscriptions.add(
-                repository.queryImages(currentQuery, currentPage.get() + 1)
-                        .subscribe(this::onNextPageResult)
-        );
-    }
-
     private void onNextPageResult(Result<Paginated<List<Image>>> result) {
-        loadingNextPage.push(false);
+        Pipes.transaction(() -> {
+            loadingNextPage.push(false);
 
-        if (result.isSuccess()) {
-            onNextPageSuccess(result);
-        }
+            if (result.isSuccess()) {
+                onNextPageSuccess(result);
+            }
+        });
     }
 
     private void onNextPageSuccess(Result<Paginated<List<Image>>> result) {
@@ -140,13 +229,6 @@ public class ImageSearchInteractor {
         return result.value.currentPage < result.value.totalPages;
     }
 
-    private void stopActiveSubscriptions() {
-        for (Pipe.Subscription subscription : activeSubscriptions) {
-            subscription.unsubscribe();
-        }
-        activeSubscriptions.clear();
-    }
-
     private void verifyQueryIsNotEmpty() {
         if (currentQuery == null || currentQuery.isEmpty()) {
             throw new IllegalStateException("There is no query");
@@ -165,24 +247,52 @@ public class ImageSearchInteractor {
      * @return pipe which emits {@code true} when more results are available. Emits {@code false} if
      * there are no more results available.
      */
-    public Pipe<Boolean> morePagesAvailable() {
-        return Pipe.fromSource(morePagesAvailable);
+    public BooleanPipe morePagesAvailable() {
+        return BooleanPipe.fromSource(morePagesAvailable);
     }
 
     /**
      * @return pipe which emits {@code true} if results are being loaded. Emits {@code false} if
      * nothing is being loaded at the moment.
      */
-    public Pipe<Boolean> loadingResults() {
-        return Pipe.fromSource(loadingResults);
+    public BooleanPipe loadingResults() {
+        return BooleanPipe.fromSource(loadingResults);
     }
 
     /**
      * @return pipe which emits {@code true} if next page is being loaded. Emits {@code false} if
      * nothing is being loaded at the moment.
      */
-    public Pipe<Boolean> loadingNextPage() {
-        return Pipe.fromSource(loadingNextPage);
+    public BooleanPipe loadingNextPage() {
+        return BooleanPipe.fromSource(loadingNextPage);
+    }
+
+    private static final class PageRequest {
+
+        final String query;
+        final int pageNumber;
+
+        PageRequest(String query, int pageNumber) {
+            this.query = query;
+            this.pageNumber = pageNumber;
+        }
+
+        boolean isFirstPage() {
+            return pageNumber == 1;
+        }
+
+    }
+
+    private static final class PageResponse {
+
+        final PageRequest request;
+        final Result<Paginated<List<Image>>> result;
+
+        PageResponse(PageRequest request, Result<Paginated<List<Image>>> result) {
+            this.request = request;
+            this.result = result;
+        }
+
     }
 
 }
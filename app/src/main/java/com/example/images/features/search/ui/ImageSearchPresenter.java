@@ -9,6 +9,7 @@ import com.example.pipe.Pipe;
 import com.example.pipe.Pipes;
 
 import java.util.List;
+import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicReference;
 
 import static com.example.images.features.search.ui.ImageSearchView.Item;
@@ -22,13 +23,20 @@ import static com.example.images.util.FunctionalUtils.map;
 public class ImageSearchPresenter implements Listener {
 
     private final ImageSearchInteractor interactor;
+    private final Executor viewExecutor;
     private final AtomicReference<String> currentQuery = new AtomicReference<>("");
 
+    private Pipe<State> state;
+
     private Pipe<State>.Subscription dataSubscription;
     private Pipe<Boolean>.Subscription loadingSubscription;
 
-    public ImageSearchPresenter(ImageSearchInteractor interactor) {
+    /**
+     * @param viewExecutor executor on which the view is updated.
+     */
+    public ImageSearchPresenter(ImageSearchInteractor interactor, Executor viewExecutor) {
         this.interactor = interactor;
+        this.viewExecutor = viewExecutor;
     }
 
     /**
@@ -38,33 +46,51 @@ public class ImageSearchPresenter implements Listener {
         view.setListener(this);
 
         loadingSubscription = interactor.loadingResults()
+                .boxed()
+                .observeOn(viewExecutor)
+                .instrumented("ImageSearchPresenter.loading")
                 .subscribe(loading -> {
                     if (loading) {
                         view.updateState(State.Loading.INSTANCE);
                     }
                 });
 
-        dataSubscription = Pipes
-                .combine(
-                        interactor.searchResults(),
-                        interactor.loadingNextPage(),
-                        interactor.morePagesAvailable(),
-                        this::buildState
-                )
+        dataSubscription = state()
+                .observeOn(viewExecutor)
+                .instrumented("ImageSearchPresenter.state")
                 .subscribe(view::updateState);
     }
 
-    private State buildState(Result<List<ImagesRepository.Image>> result, Boolean loadingNextPage, Boolean morePagesAvailable) {
+    /**
+     * State is created once and kept between {@link #stop()} and {@link #start(ImageSearchView)},
+     * so that it is not rebuilt when the view comes back and nothing has changed. Results are
+     * paired with the query they were received for, since the state depends on both.
+     */
+    private Pipe<State> state() {
+        if (state == null) {
+            state = Pipes.derived(
+                    interactor.searchResults()
+                            .map(result -> new QueryResult(currentQuery.get(), result)),
+                    interactor.loadingNextPage().boxed(),
+                    interactor.morePagesAvailable().boxed(),
+                    this::buildState
+            );
+        }
+
+        return state;
+    }
+
+    private State buildState(QueryResult queryResult, Boolean loadingNextPage, Boolean morePagesAvailable) {
+        Result<List<ImagesRepository.Image>> result = queryResult.result;
+
         if (result.isSuccess()) {
-            return buildSuccessState(result, loadingNextPage, morePagesAvailable);
+            return buildSuccessState(queryResult.query, result, loadingNextPage, morePagesAvailable);
         } else {
             return State.Failure.INSTANCE;
         }
     }
 
-    private State buildSuccessState(Result<List<ImagesRepository.Image>> result, Boolean loadingNextPage, Boolean morePagesAvailable) {
-        String query = currentQuery.get();
-
+    private State buildSuccessState(String query, Result<List<ImagesRepository.Image>> result, Boolean loadingNextPage, Boolean morePagesAvailable) {
         if (query.isEmpty()) {
             return State.Default.INSTANCE;
         } else {
@@ -113,4 +139,31 @@ public class ImageSearchPresenter implements Listener {
         interactor.search(query);
     }
 
+    private static final class QueryResult {
+
+        final String query;
+        final Result<List<ImagesRepository.Image>> result;
+
+        QueryResult(String query, Result<List<ImagesRepository.Image>> result) {
+            this.query = query;
+            this.result = result;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            QueryResult that = (QueryResult) o;
+
+            return query.equals(that.query) && result.equals(that.result);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * query.hashCode() + result.hashCode();
+        }
+
+    }
+
 }
@@ -3,15 +3,40 @@ package com.example.images.util;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
 
 /**
  * Utility functions for working with I/O.
  */
 public class IoUtils {
 
+    /**
+     * Time allowed for establishing a connection.
+     */
+    public static final int CONNECT_TIMEOUT_MILLIS = 10_000;
+
+    /**
+     * Time allowed for waiting for the next piece of data on an established connection.
+     */
+    public static final int READ_TIMEOUT_MILLIS = 15_000;
+
     private IoUtils() {
     }
 
+    /**
+     * Opens HTTP connection with {@link #CONNECT_TIMEOUT_MILLIS connect} and
+     * {@link #READ_TIMEOUT_MILLIS read} timeouts, so that a server which does not respond does not
+     * block the calling thread forever. {@link HttpURLConnection} has no timeouts by default.
+     */
+    public static HttpURLConnection openConnection(URL url) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        connection.setConnectTimeout(CONNECT_TIMEOUT_MILLIS);
+        connection.setReadTimeout(READ_TIMEOUT_MILLIS);
+
+        return connection;
+    }
+
     /**
      * Fully reads contents of the stream and converts them into string.
      */
@@ -0,0 +1,21 @@
+package com.example.images.util.concurrent;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.support.annotation.NonNull;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Executes the tasks on the main thread.
+ */
+public class MainThreadExecutor implements Executor {
+
+    private final Handler handler = new Handler(Looper.getMainLooper());
+
+    @Override
+    public void execute(@NonNull Runnable runnable) {
+        handler.post(runnable);
+    }
+
+}
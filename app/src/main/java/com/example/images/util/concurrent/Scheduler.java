@@ -2,40 +2,41 @@ package com.example.images.util.concurrent;
 
 import android.support.annotation.NonNull;
 
+import com.example.pipe.HashedWheelScheduler;
+
 import java.util.HashSet;
 import java.util.Set;
-import java.util.Timer;
-import java.util.TimerTask;
 
 import static java.util.Collections.synchronizedSet;
 
 /**
  * Schedules the tasks at the specified time.
+ * <p>
+ * All instances share the timing wheel of the pipes, so no thread is created per instance.
  */
 public class Scheduler {
 
-    private final Timer timer = new Timer();
-    private final Set<TimerTask> scheduledTasks = synchronizedSet(new HashSet<>());
+    private final com.example.pipe.Scheduler wheel;
+    private final Set<com.example.pipe.Scheduler.Task> scheduledTasks = synchronizedSet(new HashSet<>());
+
+    public Scheduler() {
+        this(HashedWheelScheduler.shared());
+    }
+
+    Scheduler(com.example.pipe.Scheduler wheel) {
+        this.wheel = wheel;
+    }
 
     /**
      * Schedules task to be executed after given delay.
      */
     public void scheduleIn(@NonNull Runnable task, long delayMs) {
-        TimerTask timerTask = new TimerTask() {
-            @Override
-            public void run() {
-                task.run();
+        ScheduledTask scheduledTask = new ScheduledTask(task);
 
-                scheduledTasks.remove(this);
-            }
-        };
-
-        scheduledTasks.add(timerTask);
-
-        timer.schedule(
-                timerTask,
-                delayMs
-        );
+        synchronized (scheduledTasks) {
+            scheduledTask.handle = wheel.schedule(scheduledTask, delayMs);
+            scheduledTasks.add(scheduledTask.handle);
+        }
     }
 
     /**
@@ -43,7 +44,7 @@ public class Scheduler {
      */
     public void cancelAll() {
         synchronized (scheduledTasks) {
-            for (TimerTask task : scheduledTasks) {
+            for (com.example.pipe.Scheduler.Task task : scheduledTasks) {
                 task.cancel();
             }
 
@@ -51,4 +52,24 @@ public class Scheduler {
         }
     }
 
+    private class ScheduledTask implements Runnable {
+
+        private final Runnable task;
+        private com.example.pipe.Scheduler.Task handle;
+
+        ScheduledTask(Runnable task) {
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            task.run();
+
+            synchronized (scheduledTasks) {
+                scheduledTasks.remove(handle);
+            }
+        }
+
+    }
+
 }
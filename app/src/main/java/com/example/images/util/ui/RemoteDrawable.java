@@ -15,6 +15,7 @@ import android.util.LruCache;
 import android.widget.ImageView;
 
 import com.example.images.BuildConfig;
+import com.example.images.util.IoUtils;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -68,7 +69,7 @@ public class RemoteDrawable extends Drawable {
 
     private void blockingLoadBitmap(String url) {
         try {
-            HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+            HttpURLConnection connection = IoUtils.openConnection(new URL(url));
 
             try {
                 Bitmap loadedBitmap = readBitmap(connection);
@@ -0,0 +1,46 @@
+package com.example.images.features.search.data.repository.flickr;
+
+import com.example.images.features.search.data.Paginated;
+import com.example.images.features.search.data.Result;
+import com.example.images.features.search.data.repository.ImagesRepository;
+import com.example.pipe.Pipe;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static junit.framework.Assert.assertEquals;
+
+public class FlickrImagesRepositoryTest {
+
+    List<Runnable> submittedTasks = new ArrayList<>();
+
+    FlickrImagesRepository testee = new FlickrImagesRepository(
+            submittedTasks::add,
+            new ResponseDeserializer()
+    );
+
+    @Test
+    public void queryImages_NotSubscribed_NoRequestIsMade() throws Exception {
+        // When
+        testee.queryImages("query", 1);
+
+        // Then
+        assertEquals(0, submittedTasks.size());
+    }
+
+    @Test
+    public void queryImages_Subscribed_RequestIsMade() throws Exception {
+        // Given
+        Pipe<Result<Paginated<List<ImagesRepository.Image>>>> pipe = testee.queryImages("query", 1);
+
+        // When
+        pipe.subscribe(result -> {
+        });
+
+        // Then
+        assertEquals(1, submittedTasks.size());
+    }
+
+}
@@ -4,18 +4,20 @@ package com.example.images.features.search.domain;
 import com.example.images.features.search.data.repository.ImagesRepository;
 import com.example.images.features.search.data.Paginated;
 import com.example.images.features.search.data.Result;
+import com.example.pipe.Backoff;
 import com.example.pipe.Pipe;
 import com.example.pipe.Source;
 import com.example.pipe.Tester;
+import com.example.pipe.VirtualTimeScheduler;
 
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.example.images.features.search.data.repository.ImagesRepository.Image;
 import static com.example.images.features.search.data.Result.error;
@@ -24,9 +26,14 @@ import static com.example.pipe.Tester.test;
 import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertEquals;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 
 @RunWith(MockitoJUnitRunner.class)
 public class ImageSearchInteractorTest {
@@ -50,7 +57,8 @@ public class ImageSearchInteractorTest {
     @Mock
     ImagesRepository repository;
 
-    @InjectMocks
+    VirtualTimeScheduler scheduler = new VirtualTimeScheduler();
+
     ImageSearchInteractor testee;
 
     Source<Result<Paginated<List<Image>>>> firstPageSource = new Source<>();
@@ -58,6 +66,12 @@ public class ImageSearchInteractorTest {
 
     @Before
     public void setUp() throws Exception {
+        testee = new ImageSearchInteractor(
+                repository,
+                Backoff.exponential(100, 1000, MILLISECONDS, 0),
+                scheduler
+        );
+
         given(repository.queryImages(QUERY, 1))
                 .willReturn(Pipe.fromSource(firstPageSource));
         given(repository.queryImages(QUERY, 2))
@@ -153,6 +167,41 @@ public class ImageSearchInteractorTest {
         );
     }
 
+    @Test
+    public void searchResult_TransientFailure_RequestRetried() throws Exception {
+        // Given
+        AtomicInteger attempts = new AtomicInteger();
+
+        given(repository.queryImages(QUERY, 1))
+                .willReturn(Pipe.defer(emitter -> {
+                    emitter.call(attempts.incrementAndGet() == 1
+                            ? error(new Exception())
+                            : success(FIRST_PAGE)
+                    );
+                    return () -> {
+                    };
+                }));
+
+        testee = new ImageSearchInteractor(
+                repository,
+                Backoff.exponential(100, 1000, MILLISECONDS, 3),
+                scheduler
+        );
+
+        Tester<Result<List<ImagesRepository.Image>>> tester = test(testee.searchResults());
+
+        // When
+        testee.search(QUERY);
+        scheduler.advanceBy(1, SECONDS);
+
+        // Then
+        tester.assertValues(
+                success(emptyList()),
+                success(singletonList(IMAGE_A))
+        );
+        assertEquals(2, attempts.get());
+    }
+
     @Test
     public void morePagesAvailable_False_WhenNoQuery() throws Exception {
         // When
@@ -313,6 +362,86 @@ public class ImageSearchInteractorTest {
         tester.assertValues(false, true, false);
     }
 
+    @Test
+    public void requestNextPage_WhileSearching_FirstPageLoaded() throws Exception {
+        // Given
+        Tester<Result<List<Image>>> resultsTester = test(testee.searchResults());
+        Tester<Boolean> loadingNextPageTester = test(testee.loadingNextPage());
+
+        testee.search(QUERY);
+
+        // When
+        testee.requestNextPage();
+
+        firstPageSource.push(
+                success(FIRST_PAGE)
+        );
+
+        // Then
+        resultsTester.assertValues(
+                success(emptyList()),
+                success(singletonList(IMAGE_A))
+        );
+        loadingNextPageTester.assertValue(false);
+        verify(repository, never()).queryImages(QUERY, 2);
+    }
+
+    @Test
+    public void search_WhileLoadingNextPage_NextPageCancelled() throws Exception {
+        // Given
+        Source<Result<Paginated<List<Image>>>> otherQuerySource = new Source<>();
+
+        given(repository.queryImages("other", 1))
+                .willReturn(Pipe.fromSource(otherQuerySource));
+
+        Tester<Result<List<Image>>> resultsTester = test(testee.searchResults());
+        Tester<Boolean> loadingNextPageTester = test(testee.loadingNextPage());
+
+        testee.search(QUERY);
+        firstPageSource.push(
+                success(FIRST_PAGE)
+        );
+        testee.requestNextPage();
+
+        // When
+        testee.search("other");
+
+        secondPageSource.push(
+                success(SECOND_PAGE)
+        );
+        otherQuerySource.push(
+                success(FIRST_PAGE)
+        );
+
+        // Then
+        resultsTester.assertValues(
+                success(emptyList()),
+                success(singletonList(IMAGE_A)),
+                success(singletonList(IMAGE_A))
+        );
+        loadingNextPageTester.assertValues(false, true, false);
+    }
+
+    @Test
+    public void dispose_WhileSearching_ResultIgnored() throws Exception {
+        // Given
+        Tester<Result<List<Image>>> resultsTester = test(testee.searchResults());
+        Tester<Boolean> loadingResultsTester = test(testee.loadingResults());
+
+        testee.search(QUERY);
+
+        // When
+        testee.dispose();
+
+        firstPageSource.push(
+                success(FIRST_PAGE)
+        );
+
+        // Then
+        resultsTester.assertValue(success(emptyList()));
+        loadingResultsTester.assertValues(false, true, false);
+    }
+
     @Test
     public void dropOldQuery() throws Exception {
         // Given
@@ -3,13 +3,16 @@ package com.example.images.features.search.ui;
 import com.example.images.features.search.data.repository.ImagesRepository;
 import com.example.images.features.search.data.Result;
 import com.example.images.features.search.domain.ImageSearchInteractor;
+import com.example.pipe.BooleanPipe;
+import com.example.pipe.BooleanSource;
 import com.example.pipe.Pipe;
+import com.example.pipe.Pipes;
 import com.example.pipe.Source;
 
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
@@ -22,7 +25,11 @@ import static com.example.images.features.search.ui.ImageSearchView.State;
 import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 
@@ -36,7 +43,6 @@ public class ImageSearchPresenterTest {
     @Mock
     ImageSearchView view;
 
-    @InjectMocks
     ImageSearchPresenter testee;
 
     Source<Result<List<ImagesRepository.Image>>> resultsSource = new Source<>(
@@ -45,19 +51,21 @@ public class ImageSearchPresenterTest {
 
     @Before
     public void setUp() throws Exception {
+        testee = new ImageSearchPresenter(interactor, Runnable::run);
+
         given(interactor.searchResults())
                 .willReturn(
                         Pipe.fromSource(resultsSource)
                 );
 
         given(interactor.loadingResults())
-                .willReturn(Pipe.constant(false));
+                .willReturn(BooleanPipe.constant(false));
 
         given(interactor.morePagesAvailable())
-                .willReturn(Pipe.constant(false));
+                .willReturn(BooleanPipe.constant(false));
 
         given(interactor.loadingNextPage())
-                .willReturn(Pipe.constant(false));
+                .willReturn(BooleanPipe.constant(false));
     }
 
     @Test
@@ -106,7 +114,7 @@ public class ImageSearchPresenterTest {
     public void loadingState() throws Exception {
         // Given
         given(interactor.loadingResults())
-                .willReturn(Pipe.constant(true));
+                .willReturn(BooleanPipe.constant(true));
 
         // When
         testee.start(view);
@@ -145,6 +153,42 @@ public class ImageSearchPresenterTest {
         verify(view).updateState(State.Failure.INSTANCE);
     }
 
+    @Test
+    public void sameResultTwice_LoadingStateReplaced() throws Exception {
+        // Given
+        BooleanSource loadingResultsSource = new BooleanSource(false);
+
+        given(interactor.loadingResults())
+                .willReturn(BooleanPipe.fromSource(loadingResultsSource));
+
+        testee.start(view);
+
+        // When
+        for (int i = 0; i < 2; i++) {
+            testee.onQueryUpdated("query");
+            loadingResultsSource.push(true);
+            resultsSource.push(
+                    success(emptyList())
+            );
+            loadingResultsSource.push(false);
+        }
+
+        // Then
+        ArgumentCaptor<State> states = ArgumentCaptor.forClass(State.class);
+        verify(view, times(5)).updateState(states.capture());
+
+        assertEquals(
+                asList(
+                        State.Default.INSTANCE,
+                        State.Loading.INSTANCE,
+                        State.NoResults.INSTANCE,
+                        State.Loading.INSTANCE,
+                        State.NoResults.INSTANCE
+                ),
+                states.getAllValues()
+        );
+    }
+
     @Test
     public void loadedResults_NoMoreResultsAvailable() throws Exception {
         // Given
@@ -169,7 +213,7 @@ public class ImageSearchPresenterTest {
     public void loadedResults_MoreResultsAvailable() throws Exception {
         // Given
         given(interactor.morePagesAvailable())
-                .willReturn(Pipe.constant(true));
+                .willReturn(BooleanPipe.constant(true));
 
         testee.start(view);
 
@@ -192,7 +236,7 @@ public class ImageSearchPresenterTest {
     public void loadingNextPage() throws Exception {
         // Given
         given(interactor.loadingNextPage())
-                .willReturn(Pipe.constant(true));
+                .willReturn(BooleanPipe.constant(true));
 
         testee.start(view);
 
@@ -230,4 +274,56 @@ public class ImageSearchPresenterTest {
         verify(view).updateState(State.Default.INSTANCE);
     }
 
-}
\ No newline at end of file
+    @Test
+    public void loadedResults_UpdatedInTransaction_SingleState() throws Exception {
+        // Given
+        BooleanSource loadingNextPageSource = new BooleanSource(true);
+
+        given(interactor.loadingNextPage())
+                .willReturn(BooleanPipe.fromSource(loadingNextPageSource));
+
+        testee.start(view);
+        testee.onQueryUpdated("query");
+
+        // When
+        Pipes.transaction(() -> {
+            loadingNextPageSource.push(false);
+            resultsSource.push(
+                    success(singletonList(REPOSITORY_IMAGE_A))
+            );
+        });
+
+        // Then
+        verify(view, times(2)).updateState(any(State.class));
+        verify(view).updateState(new State.LoadedResults(
+                singletonList(new Item.Image(
+                        REPOSITORY_IMAGE_A.url
+                )),
+                false
+        ));
+    }
+
+    @Test
+    public void restart_NothingChanged_StateIsNotRebuilt() throws Exception {
+        // Given
+        testee.start(view);
+        testee.onQueryUpdated("query");
+        resultsSource.push(
+                success(singletonList(REPOSITORY_IMAGE_A))
+        );
+        testee.stop();
+
+        // When
+        testee.start(view);
+
+        // Then
+        ArgumentCaptor<State> states = ArgumentCaptor.forClass(State.class);
+        verify(view, times(3)).updateState(states.capture());
+
+        assertSame(
+                states.getAllValues().get(1),
+                states.getAllValues().get(2)
+        );
+    }
+
+}
@@ -4,6 +4,8 @@ package com.example.images.util;
 import org.junit.Test;
 
 import java.io.ByteArrayInputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
 
 import static junit.framework.Assert.assertEquals;
 
@@ -24,4 +26,14 @@ public class IoUtilsTest {
         );
     }
 
-}
\ No newline at end of file
+    @Test
+    public void openConnection_TimeoutsAreSet() throws Exception {
+        // When
+        HttpURLConnection connection = IoUtils.openConnection(new URL("http://example.com"));
+
+        // Then
+        assertEquals(IoUtils.CONNECT_TIMEOUT_MILLIS, connection.getConnectTimeout());
+        assertEquals(IoUtils.READ_TIMEOUT_MILLIS, connection.getReadTimeout());
+    }
+
+}
@@ -0,0 +1,80 @@
+package com.example.images.util.concurrent;
+
+import com.example.pipe.VirtualTimeScheduler;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.concurrent.TimeUnit.HOURS;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.junit.Assert.assertEquals;
+
+public class ThrottlingExecutorTest {
+
+    private static final long WINDOW_MS = 200L;
+
+    VirtualTimeScheduler virtualTime = new VirtualTimeScheduler();
+    List<String> executed = new ArrayList<>();
+
+    ThrottlingExecutor executor = new ThrottlingExecutor(
+            Runnable::run,
+            new Scheduler(virtualTime),
+            WINDOW_MS
+    );
+
+    @Test
+    public void execute_RunsAfterWindow() throws Exception {
+        // Given
+        executor.execute(() -> executed.add("request"));
+
+        // When
+        virtualTime.advanceBy(WINDOW_MS - 1, MILLISECONDS);
+
+        // Then
+        assertEquals(emptyList(), executed);
+
+        virtualTime.advanceBy(1, MILLISECONDS);
+        assertEquals(asList("request"), executed);
+    }
+
+    @Test
+    public void execute_WithinWindow_OnlyLastRequestRuns() throws Exception {
+        // Given
+        executor.execute(() -> executed.add("first"));
+        virtualTime.advanceBy(100, MILLISECONDS);
+
+        // When
+        executor.execute(() -> executed.add("second"));
+        virtualTime.advanceBy(WINDOW_MS, MILLISECONDS);
+
+        // Then
+        assertEquals(asList("second"), executed);
+    }
+
+    @Test
+    public void execute_HoursOfTyping_OneRequestPerPause() throws Exception {
+        // Given
+        // User types 8 characters 150 ms apart, then reads results for 3 seconds
+        long end = HOURS.toMillis(8);
+        int words = 0;
+
+        // When
+        while (virtualTime.now() < end) {
+            for (int keystroke = 0; keystroke < 8; keystroke++) {
+                executor.execute(() -> executed.add("request"));
+                virtualTime.advanceBy(150, MILLISECONDS);
+            }
+
+            virtualTime.advanceBy(3000, MILLISECONDS);
+            words++;
+        }
+
+        // Then
+        assertEquals(words, executed.size());
+    }
+
+}
@@ -0,0 +1,92 @@
+package com.example.pipe.benchmarks;
+
+import com.example.pipe.Pipe;
+import com.example.pipe.Pipes;
+import com.example.pipe.Source;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures latency of delivering an update of one input through a combined pipe.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CombineBenchmark {
+
+    private static final Integer VALUE = 42;
+
+    @Param({"3", "10"})
+    int inputs;
+
+    private Source<Integer> combineSource;
+    private Source<Integer> combineLatestSource;
+    private Source<Integer> glitchFreeSource;
+
+    @Setup
+    public void setUp(Blackhole blackhole) {
+        combineSource = new Source<>(VALUE);
+        Pipes.combine(
+                Pipe.fromSource(combineSource),
+                Pipe.constant(VALUE),
+                Pipe.constant(VALUE),
+                (a, b, c) -> a
+        ).subscribe(blackhole::consume);
+
+        combineLatestSource = new Source<>(VALUE);
+        Pipes.combineLatest(inputs(combineLatestSource), values -> values[0])
+                .subscribe(blackhole::consume);
+
+        glitchFreeSource = new Source<>(VALUE);
+        Pipes.combineLatestGlitchFree(inputs(glitchFreeSource), values -> values[0])
+                .subscribe(blackhole::consume);
+    }
+
+    private List<Pipe<Integer>> inputs(Source<Integer> updatedSource) {
+        List<Pipe<Integer>> result = new ArrayList<>();
+        result.add(Pipe.fromSource(updatedSource));
+
+        for (int i = 1; i < inputs; i++) {
+            result.add(Pipe.constant(VALUE));
+        }
+
+        return result;
+    }
+
+    /**
+     * Ternary {@link Pipes#combine}. Does not depend on the number of inputs.
+     */
+    @Benchmark
+    public void update_Combine() {
+        combineSource.push(VALUE);
+    }
+
+    @Benchmark
+    public void update_CombineLatest() {
+        combineLatestSource.push(VALUE);
+    }
+
+    @Benchmark
+    public void update_CombineLatestGlitchFree() {
+        glitchFreeSource.push(VALUE);
+    }
+
+}
@@ -0,0 +1,69 @@
+package com.example.pipe.benchmarks;
+
+import com.example.pipe.Pipe;
+import com.example.pipe.Source;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of {@link Source#push(Object)} delivering a value to subscribers.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FanOutBenchmark {
+
+    private static final Integer VALUE = 42;
+
+    @Param({"1", "10", "100"})
+    int subscribers;
+
+    private Source<Integer> sharedPipeSource;
+    private Source<Integer> pipePerSubscriberSource;
+
+    @Setup
+    public void setUp(Blackhole blackhole) {
+        sharedPipeSource = new Source<>();
+        Pipe<Integer> sharedPipe = Pipe.fromSource(sharedPipeSource);
+
+        pipePerSubscriberSource = new Source<>();
+
+        for (int i = 0; i < subscribers; i++) {
+            sharedPipe.subscribe(blackhole::consume);
+            Pipe.fromSource(pipePerSubscriberSource).subscribe(blackhole::consume);
+        }
+    }
+
+    /**
+     * All subscribers observe the same pipe.
+     */
+    @Benchmark
+    public void push_SharedPipe() {
+        sharedPipeSource.push(VALUE);
+    }
+
+    /**
+     * Each subscriber observes its own pipe, like the interactor's pipes are being used.
+     */
+    @Benchmark
+    public void push_PipePerSubscriber() {
+        pipePerSubscriberSource.push(VALUE);
+    }
+
+}
@@ -0,0 +1,113 @@
+package com.example.pipe.benchmarks;
+
+import com.example.pipe.Pipe;
+import com.example.pipe.Source;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures how many executor submissions a burst of values costs when hopping threads with
+ * {@link Pipe#observeOn(Executor)} compared to submitting a task per value.
+ * <p>
+ * Look at the {@code submissions} and {@code emissions} secondary results.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ObserveOnBenchmark {
+
+    private static final Integer VALUE = 42;
+
+    @Param({"1", "10", "100"})
+    int burst;
+
+    private ExecutorService executorService;
+    private final AtomicLong submissions = new AtomicLong();
+    private final AtomicLong delivered = new AtomicLong();
+
+    private Source<Integer> observeOnSource;
+    private Source<Integer> taskPerValueSource;
+
+    @Setup
+    public void setUp() {
+        executorService = Executors.newSingleThreadExecutor();
+        Executor countingExecutor = task -> {
+            submissions.incrementAndGet();
+            executorService.execute(task);
+        };
+
+        observeOnSource = new Source<>();
+        Pipe.fromSource(observeOnSource)
+                .observeOn(countingExecutor)
+                .subscribe(value -> delivered.incrementAndGet());
+
+        taskPerValueSource = new Source<>();
+        Pipe.fromSource(taskPerValueSource)
+                .subscribe(value -> countingExecutor.execute(delivered::incrementAndGet));
+    }
+
+    @TearDown
+    public void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    @Benchmark
+    public void burst_ObserveOn(Counters counters) {
+        pushBurst(observeOnSource, counters);
+    }
+
+    @Benchmark
+    public void burst_TaskPerValue(Counters counters) {
+        pushBurst(taskPerValueSource, counters);
+    }
+
+    private void pushBurst(Source<Integer> source, Counters counters) {
+        long submittedBefore = submissions.get();
+        long expectedDelivered = delivered.get() + burst;
+
+        for (int i = 0; i < burst; i++) {
+            source.push(VALUE);
+        }
+
+        while (delivered.get() < expectedDelivered) {
+            Thread.yield();
+        }
+
+        counters.submissions += submissions.get() - submittedBefore;
+        counters.emissions += burst;
+    }
+
+    /**
+     * Secondary results reported by JMH.
+     */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Counters {
+
+        public long submissions;
+        public long emissions;
+
+    }
+
+}
@@ -0,0 +1,73 @@
+package com.example.pipe.benchmarks;
+
+import com.example.pipe.Pipe;
+import com.example.pipe.Source;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures per-stage overhead of fused operators compared to chaining hand-wired sources.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OperatorsBenchmark {
+
+    private static final Integer VALUE = 42;
+
+    @Param({"1", "5"})
+    int stages;
+
+    private Source<Integer> fusedSource;
+    private Source<Integer> handWiredSource;
+
+    @Setup
+    public void setUp(Blackhole blackhole) {
+        fusedSource = new Source<>();
+        Pipe<Integer> fused = Pipe.fromSource(fusedSource);
+        for (int i = 0; i < stages; i++) {
+            fused = fused.map(OperatorsBenchmark::identity);
+        }
+        fused.subscribe(blackhole::consume);
+
+        handWiredSource = new Source<>();
+        Pipe<Integer> handWired = Pipe.fromSource(handWiredSource);
+        for (int i = 0; i < stages; i++) {
+            Source<Integer> stage = new Source<>();
+            handWired.subscribe(value -> stage.push(identity(value)));
+            handWired = Pipe.fromSource(stage);
+        }
+        handWired.subscribe(blackhole::consume);
+    }
+
+    private static Integer identity(Integer value) {
+        return value;
+    }
+
+    @Benchmark
+    public void push_Fused() {
+        fusedSource.push(VALUE);
+    }
+
+    @Benchmark
+    public void push_HandWired() {
+        handWiredSource.push(VALUE);
+    }
+
+}
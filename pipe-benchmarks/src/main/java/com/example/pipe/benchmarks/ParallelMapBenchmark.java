@@ -0,0 +1,107 @@
+package com.example.pipe.benchmarks;
+
+import com.example.pipe.Pipe;
+import com.example.pipe.Source;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compares {@link Pipe#map} with {@link Pipe#parallelMap} for an expensive mapper. Each invocation
+ * pushes a batch of values and waits until all the results arrive. {@code threads} is both the
+ * size of the pool and the max concurrency, so throughput should grow with it up to the number of
+ * cores.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParallelMapBenchmark {
+
+    private static final int BATCH_SIZE = 256;
+    private static final long WORK_TOKENS = 5_000;
+
+    @Param({"1", "2", "4", "8"})
+    int threads;
+
+    private ExecutorService executor;
+
+    private Source<Integer> mapSource;
+    private Source<Integer> parallelMapSource;
+    private final AtomicInteger received = new AtomicInteger();
+
+    private Pipe<Integer>.Subscription mapSubscription;
+    private Pipe<Integer>.Subscription parallelMapSubscription;
+
+    @Setup
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(threads);
+
+        mapSource = new Source<>();
+        parallelMapSource = new Source<>();
+
+        mapSubscription = Pipe.fromSource(mapSource)
+                .map(ParallelMapBenchmark::work)
+                .subscribe(value -> received.incrementAndGet());
+
+        parallelMapSubscription = Pipe.fromSource(parallelMapSource)
+                .parallelMap(executor, threads, ParallelMapBenchmark::work)
+                .subscribe(value -> received.incrementAndGet());
+    }
+
+    @TearDown
+    public void tearDown() {
+        mapSubscription.unsubscribe();
+        parallelMapSubscription.unsubscribe();
+        executor.shutdown();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void map() {
+        pushBatch(mapSource);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void parallelMap() {
+        pushBatch(parallelMapSource);
+    }
+
+    private void pushBatch(Source<Integer> source) {
+        received.set(0);
+
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            source.push(i);
+        }
+
+        while (received.get() < BATCH_SIZE) {
+            Thread.yield();
+        }
+    }
+
+    private static Integer work(Integer value) {
+        Blackhole.consumeCPU(WORK_TOKENS);
+        return value;
+    }
+
+}
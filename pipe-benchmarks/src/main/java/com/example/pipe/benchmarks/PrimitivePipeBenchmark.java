@@ -0,0 +1,65 @@
+package com.example.pipe.benchmarks;
+
+import com.example.pipe.IntPipe;
+import com.example.pipe.IntSource;
+import com.example.pipe.Pipe;
+import com.example.pipe.Source;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares pushing counters through {@link IntPipe} with pushing them through boxed {@link Pipe}.
+ * Run with GC profiler to see the allocation rate.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PrimitivePipeBenchmark {
+
+    private static final int SUBSCRIBERS = 10;
+
+    private IntSource intSource;
+    private Source<Integer> boxedSource;
+
+    private int counter = 1000;
+
+    @Setup
+    public void setUp(Blackhole blackhole) {
+        intSource = new IntSource();
+        IntPipe intPipe = IntPipe.fromSource(intSource);
+
+        boxedSource = new Source<>();
+        Pipe<Integer> boxedPipe = Pipe.fromSource(boxedSource);
+
+        for (int i = 0; i < SUBSCRIBERS; i++) {
+            intPipe.subscribe(blackhole::consume);
+            boxedPipe.subscribe(blackhole::consume);
+        }
+    }
+
+    @Benchmark
+    public void push_IntPipe() {
+        intSource.push(counter++);
+    }
+
+    @Benchmark
+    public void push_BoxedPipe() {
+        boxedSource.push(counter++);
+    }
+
+}
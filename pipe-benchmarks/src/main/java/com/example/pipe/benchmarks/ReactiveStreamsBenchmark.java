@@ -0,0 +1,122 @@
+package com.example.pipe.benchmarks;
+
+import com.example.pipe.OverflowPolicy;
+import com.example.pipe.Pipe;
+import com.example.pipe.ReactiveStreams;
+import com.example.pipe.Source;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares subscribing to a pipe directly with consuming it through
+ * {@link ReactiveStreams#toPublisher}, where a batch processor requests {@code batchSize} values,
+ * processes them together and requests the next batch.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReactiveStreamsBenchmark {
+
+    private static final Integer VALUE = 42;
+
+    @Param({"1", "16", "256"})
+    int batchSize;
+
+    private Source<Integer> pushSource;
+    private Source<Integer> demandSource;
+
+    private Pipe<Integer>.Subscription pushSubscription;
+    private BatchProcessor batchProcessor;
+
+    @Setup
+    public void setUp(Blackhole blackhole) {
+        pushSource = new Source<>();
+        demandSource = new Source<>();
+
+        pushSubscription = Pipe.fromSource(pushSource).subscribe(blackhole::consume);
+
+        batchProcessor = new BatchProcessor(batchSize, blackhole);
+        ReactiveStreams.toPublisher(Pipe.fromSource(demandSource), batchSize, OverflowPolicy.BLOCK)
+                .subscribe(batchProcessor);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pushSubscription.unsubscribe();
+        batchProcessor.subscription.cancel();
+    }
+
+    @Benchmark
+    public void push_Subscriber() {
+        pushSource.push(VALUE);
+    }
+
+    @Benchmark
+    public void push_Publisher() {
+        demandSource.push(VALUE);
+    }
+
+    private static final class BatchProcessor implements Subscriber<Integer> {
+
+        private final int batchSize;
+        private final Blackhole blackhole;
+        private final List<Integer> batch;
+
+        Subscription subscription;
+
+        BatchProcessor(int batchSize, Blackhole blackhole) {
+            this.batchSize = batchSize;
+            this.blackhole = blackhole;
+            this.batch = new ArrayList<>(batchSize);
+        }
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(batchSize);
+        }
+
+        @Override
+        public void onNext(Integer value) {
+            batch.add(value);
+
+            if (batch.size() == batchSize) {
+                blackhole.consume(batch);
+                batch.clear();
+                subscription.request(batchSize);
+            }
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            throw new IllegalStateException(error);
+        }
+
+        @Override
+        public void onComplete() {
+        }
+
+    }
+
+}
@@ -0,0 +1,81 @@
+package com.example.pipe.benchmarks;
+
+import com.example.pipe.Pipe;
+import com.example.pipe.RingBufferSource;
+import com.example.pipe.Source;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link Source}, which calls every subscriber on the producer thread, with
+ * {@link RingBufferSource}, where each pipe consumes on its own thread. Every subscriber does a
+ * bit of work per value, so the synchronous source slows down linearly with the number of pipes.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RingBufferSourceBenchmark {
+
+    private static final Integer VALUE = 42;
+    private static final long WORK_TOKENS = 50;
+
+    @Param({"1", "2", "4"})
+    int pipes;
+
+    private Source<Integer> source;
+    private RingBufferSource<Integer> ringBufferSource;
+
+    private final List<Pipe<Integer>.Subscription> subscriptions = new ArrayList<>();
+
+    @Setup
+    public void setUp() {
+        source = new Source<>();
+        ringBufferSource = new RingBufferSource<>(1024);
+
+        for (int i = 0; i < pipes; i++) {
+            subscriptions.add(Pipe.fromSource(source).subscribe(value -> Blackhole.consumeCPU(WORK_TOKENS)));
+            subscriptions.add(Pipe.fromSource(ringBufferSource).subscribe(value -> Blackhole.consumeCPU(WORK_TOKENS)));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        for (Pipe<Integer>.Subscription subscription : subscriptions) {
+            subscription.unsubscribe();
+        }
+        subscriptions.clear();
+    }
+
+    @Benchmark
+    public void push_Source() {
+        source.push(VALUE);
+    }
+
+    /**
+     * Throughput is bound by the slowest pipe rather than by the sum of all of them.
+     */
+    @Benchmark
+    public void push_RingBufferSource() {
+        ringBufferSource.push(VALUE);
+    }
+
+}
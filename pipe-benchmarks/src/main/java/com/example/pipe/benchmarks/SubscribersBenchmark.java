@@ -0,0 +1,95 @@
+package com.example.pipe.benchmarks;
+
+import com.example.pipe.Pipe;
+import com.example.pipe.Source;
+import com.example.pipe.benchmarks.legacy.LegacyPipe;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares copy-on-write subscriber registry with the original lock-based implementation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SubscribersBenchmark {
+
+    private static final Integer VALUE = 42;
+
+    @Param({"1", "10", "100"})
+    int subscribers;
+
+    private Source<Integer> source;
+    private Pipe<Integer> pipe;
+
+    private LegacyPipe.Source<Integer> legacySource;
+    private LegacyPipe<Integer> legacyPipe;
+
+    private Blackhole blackhole;
+
+    @Setup
+    public void setUp(Blackhole blackhole) {
+        this.blackhole = blackhole;
+
+        source = new Source<>();
+        pipe = Pipe.fromSource(source);
+
+        legacySource = new LegacyPipe.Source<>();
+        legacyPipe = LegacyPipe.fromSource(legacySource);
+
+        for (int i = 0; i < subscribers; i++) {
+            pipe.subscribe(blackhole::consume);
+            legacyPipe.subscribe(blackhole::consume);
+        }
+    }
+
+    @Benchmark
+    public void push() {
+        source.push(VALUE);
+    }
+
+    @Benchmark
+    public void push_Legacy() {
+        legacySource.push(VALUE);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void push_Contended() {
+        source.push(VALUE);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void push_Contended_Legacy() {
+        legacySource.push(VALUE);
+    }
+
+    @Benchmark
+    public void subscribeUnsubscribe() {
+        pipe.subscribe(blackhole::consume).unsubscribe();
+    }
+
+    @Benchmark
+    public void subscribeUnsubscribe_Legacy() {
+        legacyPipe.subscribe(blackhole::consume).unsubscribe();
+    }
+
+}
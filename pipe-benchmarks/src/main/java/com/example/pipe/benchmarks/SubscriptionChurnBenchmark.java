@@ -0,0 +1,68 @@
+package com.example.pipe.benchmarks;
+
+import com.example.pipe.Pipe;
+import com.example.pipe.Source;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of subscribing to a pipe and unsubscribing right away.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SubscriptionChurnBenchmark {
+
+    private static final Integer VALUE = 42;
+
+    @Param({"0", "100"})
+    int existingSubscribers;
+
+    private Pipe<Integer> pipe;
+    private Pipe<Integer> derivedPipe;
+
+    private Blackhole blackhole;
+
+    @Setup
+    public void setUp(Blackhole blackhole) {
+        this.blackhole = blackhole;
+
+        Source<Integer> source = new Source<>(VALUE);
+        pipe = Pipe.fromSource(source);
+        derivedPipe = pipe.map(value -> value);
+
+        for (int i = 0; i < existingSubscribers; i++) {
+            pipe.subscribe(blackhole::consume);
+        }
+    }
+
+    @Benchmark
+    public void subscribeUnsubscribe() {
+        pipe.subscribe(blackhole::consume).unsubscribe();
+    }
+
+    /**
+     * Every subscription connects the derived pipe to its upstream and disconnects it again.
+     */
+    @Benchmark
+    public void subscribeUnsubscribe_Derived() {
+        derivedPipe.subscribe(blackhole::consume).unsubscribe();
+    }
+
+}
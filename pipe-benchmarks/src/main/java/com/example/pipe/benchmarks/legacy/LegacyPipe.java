@@ -0,0 +1,115 @@
+package com.example.pipe.benchmarks.legacy;
+
+import com.example.pipe.Action1;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Copy of the original {@code Source} and {@code Pipe} dispatch which iterates a
+ * {@link LinkedHashSet} while holding its monitor. Kept only as a baseline for the benchmarks.
+ */
+public class LegacyPipe<T> {
+
+    private final Set<Action1<T>> consumers = new LinkedHashSet<>();
+    private final AtomicReference<T> latestValue = new AtomicReference<>();
+
+    private LegacyPipe() {
+    }
+
+    /**
+     * @return new pipe using given source of values.
+     */
+    public static <T> LegacyPipe<T> fromSource(Source<T> source) {
+        final LegacyPipe<T> pipe = new LegacyPipe<>();
+
+        source.registerConsumer(value -> {
+            synchronized (pipe.consumers) {
+                pipe.latestValue.set(value);
+
+                for (Action1<T> consumer : pipe.consumers) {
+                    consumer.call(value);
+                }
+            }
+        });
+
+        return pipe;
+    }
+
+    /**
+     * Subscribes to the pipe.
+     */
+    public Subscription subscribe(Action1<T> onNext) {
+        T latest = latestValue.get();
+        if (latest != null) {
+            onNext.call(latest);
+        }
+
+        synchronized (consumers) {
+            consumers.add(onNext);
+        }
+
+        return new Subscription(onNext);
+    }
+
+    /**
+     * Subscription to {@link LegacyPipe}.
+     */
+    public class Subscription {
+
+        private final Action1<T> consumer;
+
+        Subscription(Action1<T> consumer) {
+            this.consumer = consumer;
+        }
+
+        /**
+         * Unsubscribes from the {@link LegacyPipe}.
+         */
+        public void unsubscribe() {
+            synchronized (consumers) {
+                consumers.remove(consumer);
+            }
+        }
+
+    }
+
+    /**
+     * Entry point into the {@link LegacyPipe}.
+     */
+    public static class Source<T> {
+
+        private final Set<Action1<T>> consumers = new LinkedHashSet<>();
+        private T defaultValue;
+
+        /**
+         * Pushes value into the source so that pipe will receive it.
+         */
+        public void push(T value) {
+            if (value == null) {
+                throw new NullPointerException("Null values are not permitted");
+            }
+
+            defaultValue = value;
+
+            synchronized (consumers) {
+                for (Action1<T> consumer : consumers) {
+                    consumer.call(value);
+                }
+            }
+        }
+
+        void registerConsumer(Action1<T> consumer) {
+            if (defaultValue != null) {
+                consumer.call(defaultValue);
+            }
+
+            synchronized (consumers) {
+                consumers.add(consumer);
+            }
+        }
+
+    }
+
+}
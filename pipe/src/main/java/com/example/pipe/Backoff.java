@@ -0,0 +1,85 @@
+package com.example.pipe;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decides how many times {@link Pipe#retry(Predicate, Backoff)} retries and how long it waits
+ * before each retry.
+ * <p>
+ * Delay doubles with each retry until it reaches the maximum, and the actual delay is picked at
+ * random between zero and that value ("full jitter"), so that clients which failed together do not
+ * retry together.
+ */
+public final class Backoff {
+
+    private final long initialDelayMillis;
+    private final long maxDelayMillis;
+    private final int maxRetries;
+    private final Random random;
+    private final String metricsName;
+
+    Backoff(long initialDelayMillis, long maxDelayMillis, int maxRetries, Random random, String metricsName) {
+        this.initialDelayMillis = initialDelayMillis;
+        this.maxDelayMillis = maxDelayMillis;
+        this.maxRetries = maxRetries;
+        this.random = random;
+        this.metricsName = metricsName;
+    }
+
+    /**
+     * @param initialDelay upper bound of the delay before the first retry.
+     * @param maxDelay     upper bound of the delay before any retry.
+     * @param maxRetries   number of retries after which the failure is given up on.
+     */
+    public static Backoff exponential(long initialDelay, long maxDelay, TimeUnit unit, int maxRetries) {
+        if (initialDelay < 1) {
+            throw new IllegalArgumentException("Initial delay must be positive: " + initialDelay);
+        }
+        if (maxDelay < initialDelay) {
+            throw new IllegalArgumentException("Max delay must not be less than initial delay: " + maxDelay);
+        }
+        if (maxRetries < 0) {
+            throw new IllegalArgumentException("Max retries must not be negative: " + maxRetries);
+        }
+
+        return new Backoff(
+                unit.toMillis(initialDelay),
+                unit.toMillis(maxDelay),
+                maxRetries,
+                new Random(),
+                null
+        );
+    }
+
+    /**
+     * @return same backoff which records retries of the pipes using it under the given name, see
+     * {@link MetricsSnapshot#retryCount} and {@link MetricsSnapshot#exhaustedRetryCount}.
+     */
+    public Backoff instrumented(String name) {
+        return new Backoff(initialDelayMillis, maxDelayMillis, maxRetries, random, name);
+    }
+
+    int maxRetries() {
+        return maxRetries;
+    }
+
+    /**
+     * @param retry number of the retry, starting from 0.
+     */
+    long delayMillis(int retry) {
+        long ceiling = retry < Long.numberOfLeadingZeros(initialDelayMillis) - 1
+                ? Math.min(initialDelayMillis << retry, maxDelayMillis)
+                : maxDelayMillis;
+
+        return (long) (random.nextDouble() * (ceiling + 1));
+    }
+
+    /**
+     * @return metrics retries are recorded to, or {@code null} if they are not recorded.
+     */
+    PipeMetrics metrics() {
+        return metricsName != null ? Metrics.forName(metricsName) : null;
+    }
+
+}
@@ -0,0 +1,13 @@
+package com.example.pipe;
+
+/**
+ * Function which takes 1 {@code boolean} parameter and returns nothing.
+ */
+public interface BooleanAction1 {
+
+    /**
+     * Executes the function.
+     */
+    void call(boolean value);
+
+}
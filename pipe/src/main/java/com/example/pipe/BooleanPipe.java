@@ -0,0 +1,78 @@
+package com.example.pipe;
+
+/**
+ * Pipe of {@code boolean} values. Same as {@link Pipe}, but values are never boxed on their way from
+ * {@link BooleanSource} to the subscribers, which keeps flags and counters allocation-free.
+ * <p>
+ * Use {@link #boxed()} to apply operators of {@link Pipe} or to combine it with other pipes.
+ */
+public class BooleanPipe extends PrimitivePipe<BooleanAction1> {
+
+    private BooleanPipe(BooleanSource source) {
+        super(source);
+    }
+
+    /**
+     * @return new pipe using given source of values. The pipe registers itself in the source only
+     * while it has subscribers.
+     */
+    public static BooleanPipe fromSource(BooleanSource source) {
+        return new BooleanPipe(source);
+    }
+
+    /**
+     * @return new pipe which has only one value in it.
+     */
+    public static BooleanPipe constant(boolean value) {
+        return fromSource(new BooleanSource(value));
+    }
+
+    /**
+     * Subscribes to the pipe.
+     *
+     * @param onNext callback which is notified each time new item is being pushed out of the pipe.
+     * @return {@link Subscription} object which represents connection to the pipe.
+     */
+    public Subscription subscribe(BooleanAction1 onNext) {
+        return new Subscription(addSubscriber(onNext));
+    }
+
+    /**
+     * @return pipe which emits the same values, boxed.
+     */
+    public Pipe<Boolean> boxed() {
+        return new Pipe<>(
+                consumer -> {
+                    Subscription subscription = subscribe(consumer::call);
+
+                    return subscription::unsubscribe;
+                }
+        );
+    }
+
+    @Override
+    BooleanAction1 dispatcher() {
+        return value -> dispatch(value ? 1 : 0);
+    }
+
+    /**
+     * Subscription to {@link BooleanPipe}.
+     */
+    public class Subscription {
+
+        private final Subscribers.Node<BooleanAction1> node;
+
+        Subscription(Subscribers.Node<BooleanAction1> node) {
+            this.node = node;
+        }
+
+        /**
+         * Unsubscribes from the {@link BooleanPipe} so that no new values are being accepted.
+         */
+        public void unsubscribe() {
+            removeSubscriber(node);
+        }
+
+    }
+
+}
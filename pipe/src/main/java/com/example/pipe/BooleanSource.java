@@ -0,0 +1,27 @@
+package com.example.pipe;
+
+/**
+ * Entry point into the {@link BooleanPipe}. Same as {@link Source}, but values are never boxed.
+ */
+public class BooleanSource extends PrimitiveSource<BooleanAction1> {
+
+    public BooleanSource() {
+    }
+
+    public BooleanSource(boolean defaultValue) {
+        super(defaultValue ? 1 : 0);
+    }
+
+    /**
+     * Pushes value into the source so that pipe will receive it.
+     */
+    public void push(boolean value) {
+        pushBits(value ? 1 : 0);
+    }
+
+    @Override
+    void deliver(BooleanAction1 consumer, long bits) {
+        consumer.call(bits != 0);
+    }
+
+}
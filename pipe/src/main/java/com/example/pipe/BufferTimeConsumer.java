@@ -0,0 +1,126 @@
+package com.example.pipe;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Consumer which collects values into batches and passes a batch to the downstream once it holds
+ * {@code maxSize} values or once the period which started with its first value ends, whichever
+ * comes first. Nothing is scheduled while the upstream is silent.
+ * <p>
+ * Full batches are emitted by the pushing thread and expired ones by the scheduler's thread, so
+ * batches are queued in the order they were completed and passed to the downstream by the same
+ * drain loop as {@link ObserveOnConsumer} uses. The downstream is thus never called concurrently.
+ */
+final class BufferTimeConsumer<T> implements Action1<T>, Connection {
+
+    private final Action1<List<T>> downstream;
+    private final Scheduler scheduler;
+    private final long periodMillis;
+    private final int maxSize;
+
+    private List<T> batch;
+    private Scheduler.Task pendingTask;
+
+    /**
+     * Number of the current batch, so that a timer which was not cancelled in time does not
+     * complete the batch which followed its own.
+     */
+    private long generation;
+    private boolean disconnected;
+
+    private final Queue<List<T>> completed = new ArrayDeque<>();
+    private final AtomicInteger pendingDrains = new AtomicInteger();
+
+    BufferTimeConsumer(Action1<List<T>> downstream, Scheduler scheduler, long periodMillis, int maxSize) {
+        this.downstream = downstream;
+        this.scheduler = scheduler;
+        this.periodMillis = periodMillis;
+        this.maxSize = maxSize;
+        this.batch = new ArrayList<>(maxSize);
+    }
+
+    @Override
+    public void call(T value) {
+        synchronized (this) {
+            if (disconnected) {
+                return;
+            }
+
+            batch.add(value);
+
+            if (batch.size() < maxSize) {
+                if (pendingTask == null) {
+                    long current = generation;
+                    pendingTask = scheduler.schedule(() -> emitOnTime(current), periodMillis);
+                }
+                return;
+            }
+
+            completeBatch();
+        }
+
+        drain();
+    }
+
+    private void emitOnTime(long expectedGeneration) {
+        synchronized (this) {
+            if (disconnected || generation != expectedGeneration || batch.isEmpty()) {
+                return;
+            }
+
+            completeBatch();
+        }
+
+        drain();
+    }
+
+    private void completeBatch() {
+        if (pendingTask != null) {
+            pendingTask.cancel();
+            pendingTask = null;
+        }
+
+        completed.add(Collections.unmodifiableList(batch));
+        batch = new ArrayList<>(maxSize);
+        generation++;
+    }
+
+    private void drain() {
+        if (pendingDrains.getAndIncrement() != 0) {
+            return;
+        }
+
+        int missed = 1;
+
+        do {
+            List<T> full;
+            while ((full = pollCompleted()) != null) {
+                downstream.call(full);
+            }
+
+            missed = pendingDrains.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private synchronized List<T> pollCompleted() {
+        return disconnected ? null : completed.poll();
+    }
+
+    @Override
+    public synchronized void disconnect() {
+        disconnected = true;
+        batch.clear();
+        completed.clear();
+
+        if (pendingTask != null) {
+            pendingTask.cancel();
+            pendingTask = null;
+        }
+    }
+
+}
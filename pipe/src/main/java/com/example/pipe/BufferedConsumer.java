@@ -0,0 +1,186 @@
+package com.example.pipe;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Consumer which puts values into a bounded queue and passes them to the actual consumer on the
+ * executor.
+ * <p>
+ * The queue is drained by a single task: a burst of values results in one submission to the
+ * executor, and the lock which guards the queue is never held while the actual consumer is called.
+ * <p>
+ * An overflow under {@link OverflowPolicy#ERROR} is only recorded by the producer, so that other
+ * subscribers of the pipe still receive the value, and is reported by the task which drains the
+ * queue, once the values queued before it are delivered.
+ */
+final class BufferedConsumer<T> implements Action1<T>, Runnable {
+
+    private final Action1<T> consumer;
+    private final Executor executor;
+    private final OverflowPolicy policy;
+    private final AtomicLong droppedCount;
+
+    private final Object[] queue;
+    private int head;
+    private int size;
+    private boolean cancelled;
+    private boolean overflown;
+
+    private final AtomicInteger pendingDrains = new AtomicInteger();
+
+    BufferedConsumer(Action1<T> consumer,
+                     Executor executor,
+                     int capacity,
+                     OverflowPolicy policy,
+                     AtomicLong droppedCount) {
+        this.consumer = consumer;
+        this.executor = executor;
+        this.policy = policy;
+        this.droppedCount = droppedCount;
+        this.queue = new Object[capacity];
+    }
+
+    @Override
+    public void call(T value) {
+        synchronized (queue) {
+            if (cancelled) {
+                return;
+            }
+
+            if (size < queue.length || makeRoom()) {
+                queue[(head + size) % queue.length] = value;
+                size++;
+            } else if (!overflown) {
+                return;
+            }
+        }
+
+        scheduleDrain();
+    }
+
+    /**
+     * Frees at least one slot in the full queue according to the policy.
+     *
+     * @return {@code false} if the value should not be queued.
+     */
+    private boolean makeRoom() {
+        switch (policy) {
+            case DROP_OLDEST:
+                poll();
+                droppedCount.incrementAndGet();
+                return true;
+            case KEEP_LATEST:
+                droppedCount.addAndGet(size);
+                clear();
+                return true;
+            case BLOCK:
+                return awaitRoom();
+            case ERROR:
+                droppedCount.incrementAndGet();
+                overflown = true;
+                return false;
+            default:
+                throw new IllegalStateException("Unknown policy: " + policy);
+        }
+    }
+
+    private boolean awaitRoom() {
+        try {
+            while (size == queue.length && !cancelled) {
+                queue.wait();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            droppedCount.incrementAndGet();
+            return false;
+        }
+
+        return !cancelled;
+    }
+
+    private void scheduleDrain() {
+        if (pendingDrains.getAndIncrement() == 0) {
+            executor.execute(this);
+        }
+    }
+
+    /**
+     * Delivers the queued values.
+     *
+     * @throws IllegalStateException if the queue overflowed under {@link OverflowPolicy#ERROR}.
+     */
+    @Override
+    public void run() {
+        int missed = 1;
+        boolean overflowReported = false;
+
+        do {
+            T value;
+            while ((value = pollAndNotify()) != null) {
+                consumer.call(value);
+            }
+
+            overflowReported |= takeOverflow();
+
+            missed = pendingDrains.addAndGet(-missed);
+        } while (missed != 0);
+
+        if (overflowReported) {
+            throw new IllegalStateException("Queue of " + queue.length + " values was full, values were dropped");
+        }
+    }
+
+    private T pollAndNotify() {
+        synchronized (queue) {
+            if (cancelled || size == 0) {
+                return null;
+            }
+
+            T value = poll();
+
+            // Only a blocked producer waits for room
+            if (policy == OverflowPolicy.BLOCK) {
+                queue.notifyAll();
+            }
+
+            return value;
+        }
+    }
+
+    private boolean takeOverflow() {
+        synchronized (queue) {
+            boolean result = overflown && !cancelled;
+            overflown = false;
+            return result;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private T poll() {
+        T value = (T) queue[head];
+        queue[head] = null;
+        head = (head + 1) % queue.length;
+        size--;
+        return value;
+    }
+
+    private void clear() {
+        while (size > 0) {
+            poll();
+        }
+    }
+
+    /**
+     * Drops all queued values and stops accepting new ones.
+     */
+    void cancel() {
+        synchronized (queue) {
+            cancelled = true;
+            clear();
+            queue.notifyAll();
+        }
+    }
+
+}
@@ -0,0 +1,54 @@
+package com.example.pipe;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pipe which delivers values to each of its subscribers through a bounded queue, so that producer
+ * does not wait for subscribers to handle the values.
+ *
+ * @see Pipe#buffered(Executor, int, OverflowPolicy)
+ */
+public final class BufferedPipe<T> extends Pipe<T> {
+
+    private final Executor executor;
+    private final int capacity;
+    private final OverflowPolicy policy;
+
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    BufferedPipe(Pipe<T> upstream, Executor executor, int capacity, OverflowPolicy policy) {
+        super(
+                consumer -> {
+                    Pipe<T>.Subscription subscription = upstream.subscribe(consumer);
+
+                    return subscription::unsubscribe;
+                }
+        );
+
+        this.executor = executor;
+        this.capacity = capacity;
+        this.policy = policy;
+    }
+
+    @Override
+    public Subscription subscribe(Action1<T> onNext) {
+        BufferedConsumer<T> consumer = new BufferedConsumer<>(
+                onNext,
+                executor,
+                capacity,
+                policy,
+                droppedCount
+        );
+
+        return subscribe(consumer, consumer::cancel);
+    }
+
+    /**
+     * @return total number of values which were dropped because queue of a subscriber was full.
+     */
+    public long droppedCount() {
+        return droppedCount.get();
+    }
+
+}
@@ -0,0 +1,119 @@
+package com.example.pipe;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Connects to every pipe from the list and combines their latest values.
+ * <p>
+ * Latest values are kept in a single immutable array which is replaced atomically on every
+ * update, so the mapper always sees a consistent snapshot. The mapper gets its own copy of it,
+ * which it is free to keep or modify.
+ */
+final class CombineLatestConnector<R> implements Connector<R> {
+
+    private final Pipe<Object>[] pipes;
+    private final FunctionN<R> mapper;
+    private final boolean glitchFree;
+
+    @SuppressWarnings("unchecked")
+    CombineLatestConnector(List<? extends Pipe<?>> pipes, FunctionN<R> mapper, boolean glitchFree) {
+        this.pipes = pipes.toArray(new Pipe[pipes.size()]);
+        this.mapper = mapper;
+        this.glitchFree = glitchFree;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public Connection connect(Action1<R> consumer) {
+        CombinedValues combinedValues = new CombinedValues(consumer);
+        Pipe<Object>.Subscription[] subscriptions = new Pipe.Subscription[pipes.length];
+
+        Transaction.run(() -> {
+            for (int i = 0; i < pipes.length; i++) {
+                final int index = i;
+
+                subscriptions[i] = pipes[i].subscribe(
+                        value -> combinedValues.update(index, value)
+                );
+            }
+        });
+
+        return () -> {
+            for (Pipe<Object>.Subscription subscription : subscriptions) {
+                subscription.unsubscribe();
+            }
+        };
+    }
+
+    private final class CombinedValues implements Runnable {
+
+        private final Action1<R> consumer;
+
+        private final AtomicReference<Object[]> values = new AtomicReference<>(new Object[pipes.length]);
+        private final AtomicBoolean emissionDeferred = new AtomicBoolean();
+        private volatile boolean complete;
+
+        CombinedValues(Action1<R> consumer) {
+            this.consumer = consumer;
+        }
+
+        void update(int index, Object value) {
+            while (true) {
+                Object[] current = values.get();
+                Object[] updated = current.clone();
+                updated[index] = value;
+
+                if (values.compareAndSet(current, updated)) {
+                    break;
+                }
+            }
+
+            if (!isComplete()) {
+                return;
+            }
+
+            if (!glitchFree) {
+                emit();
+            } else if (emissionDeferred.compareAndSet(false, true)) {
+                if (!Transaction.defer(this)) {
+                    run();
+                }
+            }
+        }
+
+        private boolean isComplete() {
+            if (complete) {
+                return true;
+            }
+
+            for (Object value : values.get()) {
+                if (value == null) {
+                    return false;
+                }
+            }
+
+            complete = true;
+            return true;
+        }
+
+        @Override
+        public void run() {
+            emissionDeferred.set(false);
+            emit();
+        }
+
+        private void emit() {
+            R result = mapper.call(values.get().clone());
+
+            if (result == null) {
+                throw new NullPointerException("Null values are not permitted");
+            }
+
+            consumer.call(result);
+        }
+
+    }
+
+}
@@ -0,0 +1,67 @@
+package com.example.pipe;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Source which delivers only the latest value to the pipes.
+ * <p>
+ * Values pushed while previous value is still being delivered (or while delivery is waiting for
+ * the executor) replace each other, and only the newest one is delivered once the consumers are
+ * done. Producers never wait for the consumers: the thread which finds the source idle delivers
+ * the values, other threads just leave their value behind.
+ */
+public class ConflatingSource<T> extends DrainingSource<T> {
+
+    private final AtomicReference<T> pendingValue = new AtomicReference<>();
+    private final AtomicLong conflatedCount = new AtomicLong();
+
+    public ConflatingSource() {
+        this(null, IMMEDIATE);
+    }
+
+    public ConflatingSource(T defaultValue) {
+        this(defaultValue, IMMEDIATE);
+    }
+
+    /**
+     * @param executor executor on which values are delivered to the pipes.
+     */
+    public ConflatingSource(T defaultValue, Executor executor) {
+        super(defaultValue, executor);
+    }
+
+    /**
+     * Pushes value into the source. If the source is busy delivering another value, the value
+     * replaces any other value which is waiting for delivery.
+     */
+    @Override
+    public void push(T value) {
+        if (value == null) {
+            throw new NullPointerException("Null values are not permitted");
+        }
+
+        if (pendingValue.getAndSet(value) != null) {
+            conflatedCount.incrementAndGet();
+        }
+
+        scheduleDrain();
+    }
+
+    @Override
+    void deliverPending() {
+        T value = pendingValue.getAndSet(null);
+        if (value != null) {
+            deliver(value);
+        }
+    }
+
+    /**
+     * @return number of values which were replaced by newer ones before being delivered.
+     */
+    public long conflatedCount() {
+        return conflatedCount.get();
+    }
+
+}
@@ -0,0 +1,13 @@
+package com.example.pipe;
+
+/**
+ * Link between a {@link Pipe} and the producer of its values.
+ */
+interface Connection {
+
+    /**
+     * Stops delivering values through this connection.
+     */
+    void disconnect();
+
+}
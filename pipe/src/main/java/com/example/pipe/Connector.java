@@ -0,0 +1,14 @@
+package com.example.pipe;
+
+/**
+ * Establishes {@link Connection} between a {@link Pipe} and the producer of its values.
+ */
+interface Connector<T> {
+
+    /**
+     * Starts delivering values to the given consumer. Latest known value, if there is one, is
+     * delivered right away.
+     */
+    Connection connect(Action1<T> consumer);
+
+}
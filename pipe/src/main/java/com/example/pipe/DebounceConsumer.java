@@ -0,0 +1,60 @@
+package com.example.pipe;
+
+/**
+ * Consumer which passes a value to the downstream only after no other value arrived for the given
+ * time. Each new value cancels the pending emission of the previous one.
+ */
+final class DebounceConsumer<T> implements Action1<T>, Connection {
+
+    private final Action1<T> downstream;
+    private final Scheduler scheduler;
+    private final long timeoutMillis;
+
+    private Scheduler.Task pendingTask;
+    private long generation;
+    private boolean disconnected;
+
+    DebounceConsumer(Action1<T> downstream, Scheduler scheduler, long timeoutMillis) {
+        this.downstream = downstream;
+        this.scheduler = scheduler;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    @Override
+    public synchronized void call(T value) {
+        if (disconnected) {
+            return;
+        }
+
+        cancelPending();
+
+        long current = ++generation;
+        pendingTask = scheduler.schedule(() -> emit(value, current), timeoutMillis);
+    }
+
+    private void emit(T value, long expectedGeneration) {
+        synchronized (this) {
+            if (disconnected || generation != expectedGeneration) {
+                return;
+            }
+
+            pendingTask = null;
+        }
+
+        downstream.call(value);
+    }
+
+    @Override
+    public synchronized void disconnect() {
+        disconnected = true;
+        cancelPending();
+    }
+
+    private void cancelPending() {
+        if (pendingTask != null) {
+            pendingTask.cancel();
+            pendingTask = null;
+        }
+    }
+
+}
@@ -0,0 +1,72 @@
+package com.example.pipe;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Base of the sources which can be pushed into from several threads at once:
+ * {@link SerializedSource} and {@link ConflatingSource}. Producers leave their values behind in
+ * the subclass, and the thread which finds the source idle delivers them, on the executor, until
+ * none are left. Values are thus delivered to the pipes one at a time and producers never wait
+ * for each other.
+ */
+abstract class DrainingSource<T> extends Source<T> {
+
+    static final Executor IMMEDIATE = Runnable::run;
+
+    private final Executor executor;
+    private final AtomicInteger pendingDrains = new AtomicInteger();
+
+    DrainingSource(T defaultValue, Executor executor) {
+        super(defaultValue);
+
+        this.executor = executor;
+    }
+
+    /**
+     * Delivers the values which were left behind since the previous call.
+     */
+    abstract void deliverPending();
+
+    /**
+     * Passes the value to the pipes.
+     */
+    final void deliver(T value) {
+        super.push(value);
+    }
+
+    /**
+     * Makes sure the values left behind are delivered, either by the thread which is delivering
+     * already or by a new drain on the executor.
+     */
+    final void scheduleDrain() {
+        if (pendingDrains.getAndIncrement() == 0) {
+            executor.execute(this::drain);
+        }
+    }
+
+    /**
+     * If a consumer throws, the drain is handed over to a new one on the executor before the
+     * exception is rethrown, so that the values left behind by other threads in the meantime do
+     * not wait for the next push.
+     */
+    private void drain() {
+        int missed = 1;
+        boolean completed = false;
+
+        try {
+            do {
+                deliverPending();
+
+                missed = pendingDrains.addAndGet(-missed);
+            } while (missed != 0);
+
+            completed = true;
+        } finally {
+            if (!completed) {
+                executor.execute(this::drain);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,13 @@
+package com.example.pipe;
+
+/**
+ * Function which takes 1 argument and returns a result.
+ */
+public interface Function1<T, R> {
+
+    /**
+     * Invokes the function.
+     */
+    R call(T value);
+
+}
@@ -0,0 +1,13 @@
+package com.example.pipe;
+
+/**
+ * Function which takes 2 arguments and returns a result.
+ */
+public interface Function2<T1, T2, R> {
+
+    /**
+     * Invokes the function.
+     */
+    R call(T1 a, T2 b);
+
+}
@@ -0,0 +1,15 @@
+package com.example.pipe;
+
+/**
+ * Function which takes an arbitrary number of arguments and returns a result.
+ */
+public interface FunctionN<R> {
+
+    /**
+     * Invokes the function.
+     *
+     * @param values arguments of the function. The array must not be modified.
+     */
+    R call(Object[] values);
+
+}
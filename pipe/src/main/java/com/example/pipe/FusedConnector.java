@@ -0,0 +1,79 @@
+package com.example.pipe;
+
+/**
+ * Connects a pipe directly to the root pipe of an operator chain.
+ * <p>
+ * Consecutive operators are fused: instead of creating an intermediate pipe per operator, all of
+ * them are stacked into a single chain of consumers which is subscribed to the root pipe. A value
+ * therefore goes through one dispatch regardless of the length of the chain.
+ */
+final class FusedConnector<T> implements Connector<T> {
+
+    private final Pipe<Object> root;
+    private final Operator<Object, Object>[] operators;
+
+    private FusedConnector(Pipe<Object> root, Operator<Object, Object>[] operators) {
+        this.root = root;
+        this.operators = operators;
+    }
+
+    /**
+     * @return connector which applies the operator on top of the given pipe, fusing it with the
+     * operators the pipe itself was built from.
+     */
+    @SuppressWarnings("unchecked")
+    static <T, R> FusedConnector<R> append(Pipe<T> pipe, Operator<T, R> operator) {
+        Connector<T> connector = pipe.connector();
+
+        if (connector instanceof FusedConnector) {
+            FusedConnector<T> fused = (FusedConnector<T>) connector;
+
+            return new FusedConnector<>(
+                    fused.root,
+                    append(fused.operators, (Operator<Object, Object>) (Operator) operator)
+            );
+        } else {
+            return new FusedConnector<>(
+                    (Pipe<Object>) pipe,
+                    new Operator[]{operator}
+            );
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Operator<Object, Object>[] append(Operator<Object, Object>[] operators,
+                                                     Operator<Object, Object> operator) {
+        Operator<Object, Object>[] result = new Operator[operators.length + 1];
+        System.arraycopy(operators, 0, result, 0, operators.length);
+        result[operators.length] = operator;
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public Connection connect(Action1<T> consumer) {
+        Action1<Object> chain = (Action1<Object>) consumer;
+        Connection[] stageConnections = new Connection[operators.length];
+
+        for (int i = operators.length - 1; i >= 0; i--) {
+            chain = operators[i].apply(chain);
+
+            if (chain instanceof Connection) {
+                stageConnections[i] = (Connection) chain;
+            }
+        }
+
+        Pipe<Object>.Subscription subscription = root.subscribe(chain);
+
+        return () -> {
+            subscription.unsubscribe();
+
+            for (Connection stageConnection : stageConnections) {
+                if (stageConnection != null) {
+                    stageConnection.disconnect();
+                }
+            }
+        };
+    }
+
+}
@@ -0,0 +1,224 @@
+package com.example.pipe;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link Scheduler} backed by a hashed timing wheel.
+ * <p>
+ * The wheel is an array of buckets, each covering one tick. A task goes into the bucket of the
+ * tick it expires on, together with the number of full rotations left before it is due, so both
+ * scheduling and cancellation are O(1) regardless of how many tasks are pending. The price is
+ * precision: tasks run up to one tick late.
+ * <p>
+ * A single worker thread advances the wheel and runs expired tasks, so they should be short. The
+ * thread starts with the first task and sleeps while there is nothing scheduled.
+ */
+public final class HashedWheelScheduler implements Scheduler {
+
+    private static final long DEFAULT_TICK_MILLIS = 10;
+    private static final int DEFAULT_WHEEL_SIZE = 512;
+
+    private final long tickMillis;
+    private final int mask;
+    private final List<WheelTask>[] wheel;
+
+    private final Queue<WheelTask> newTasks = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final AtomicBoolean started = new AtomicBoolean();
+    private final Object idleLock = new Object();
+    private final long startNanos = System.nanoTime();
+
+    private long tick;
+
+    /**
+     * @return scheduler shared by all the time-based operators which are not given one explicitly.
+     */
+    public static HashedWheelScheduler shared() {
+        return SharedHolder.INSTANCE;
+    }
+
+    public HashedWheelScheduler() {
+        this(DEFAULT_TICK_MILLIS, DEFAULT_WHEEL_SIZE);
+    }
+
+    /**
+     * @param tickMillis duration of a single tick, which is also the precision of the scheduler.
+     * @param wheelSize  number of buckets, rounded up to the power of two.
+     */
+    @SuppressWarnings("unchecked")
+    public HashedWheelScheduler(long tickMillis, int wheelSize) {
+        if (tickMillis < 1) {
+            throw new IllegalArgumentException("Tick must be positive: " + tickMillis);
+        }
+        if (wheelSize < 1) {
+            throw new IllegalArgumentException("Wheel size must be positive: " + wheelSize);
+        }
+
+        int size = Integer.highestOneBit(wheelSize);
+        if (size < wheelSize) {
+            size <<= 1;
+        }
+
+        this.tickMillis = tickMillis;
+        this.mask = size - 1;
+        this.wheel = new List[size];
+
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new ArrayList<>();
+        }
+    }
+
+    @Override
+    public long now() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    @Override
+    public Task schedule(Runnable task, long delayMillis) {
+        WheelTask wheelTask = new WheelTask(task, now() + Math.max(delayMillis, 0));
+
+        newTasks.offer(wheelTask);
+
+        if (pendingCount.getAndIncrement() == 0) {
+            synchronized (idleLock) {
+                idleLock.notifyAll();
+            }
+        }
+
+        if (started.compareAndSet(false, true)) {
+            Thread worker = new Thread(this::runWorker, "HashedWheelScheduler");
+            worker.setDaemon(true);
+            worker.start();
+        }
+
+        return wheelTask;
+    }
+
+    private void runWorker() {
+        while (true) {
+            try {
+                awaitTasks();
+                awaitNextTick();
+            } catch (InterruptedException e) {
+                return;
+            }
+
+            transferNewTasks();
+            expire(wheel[(int) (tick & mask)]);
+
+            tick++;
+        }
+    }
+
+    private void awaitTasks() throws InterruptedException {
+        if (pendingCount.get() > 0) {
+            return;
+        }
+
+        synchronized (idleLock) {
+            while (pendingCount.get() == 0) {
+                idleLock.wait();
+            }
+        }
+
+        // Ticks which passed while idle had nothing to expire
+        tick = Math.max(tick, now() / tickMillis);
+    }
+
+    private void awaitNextTick() throws InterruptedException {
+        long sleepMillis = (tick + 1) * tickMillis - now();
+
+        if (sleepMillis > 0) {
+            Thread.sleep(sleepMillis);
+        }
+    }
+
+    private void transferNewTasks() {
+        WheelTask task;
+        while ((task = newTasks.poll()) != null) {
+            if (task.isCancelled()) {
+                continue;
+            }
+
+            long expirationTick = Math.max(task.deadline / tickMillis, tick);
+            task.remainingRounds = (expirationTick - tick) / wheel.length;
+
+            wheel[(int) (expirationTick & mask)].add(task);
+        }
+    }
+
+    private void expire(List<WheelTask> bucket) {
+        Iterator<WheelTask> iterator = bucket.iterator();
+
+        while (iterator.hasNext()) {
+            WheelTask task = iterator.next();
+
+            if (task.isCancelled()) {
+                iterator.remove();
+            } else if (task.remainingRounds <= 0) {
+                iterator.remove();
+                task.expire();
+            } else {
+                task.remainingRounds--;
+            }
+        }
+    }
+
+    private final class WheelTask implements Task {
+
+        private static final int PENDING = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+
+        private final Runnable runnable;
+        private final long deadline;
+        private final AtomicInteger state = new AtomicInteger(PENDING);
+
+        private long remainingRounds;
+
+        WheelTask(Runnable runnable, long deadline) {
+            this.runnable = runnable;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public void cancel() {
+            if (state.compareAndSet(PENDING, CANCELLED)) {
+                pendingCount.decrementAndGet();
+            }
+        }
+
+        boolean isCancelled() {
+            return state.get() == CANCELLED;
+        }
+
+        void expire() {
+            if (state.compareAndSet(PENDING, EXPIRED)) {
+                pendingCount.decrementAndGet();
+
+                try {
+                    runnable.run();
+                } catch (RuntimeException e) {
+                    // Failing task must not stop the wheel for the other ones
+                    Thread thread = Thread.currentThread();
+                    thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+                }
+            }
+        }
+
+    }
+
+    private static final class SharedHolder {
+
+        static final HashedWheelScheduler INSTANCE = new HashedWheelScheduler();
+
+    }
+
+}
@@ -0,0 +1,42 @@
+package com.example.pipe;
+
+/**
+ * Pipe which records emissions of its upstream and the time each subscriber takes to handle a
+ * value.
+ *
+ * @see Pipe#instrumented(String)
+ */
+final class InstrumentedPipe<T> extends Pipe<T> {
+
+    private final PipeMetrics metrics;
+
+    InstrumentedPipe(Pipe<T> upstream, PipeMetrics metrics) {
+        super(
+                consumer -> {
+                    Pipe<T>.Subscription subscription = upstream.subscribe(value -> {
+                        metrics.onEmission();
+                        consumer.call(value);
+                    });
+
+                    return subscription::unsubscribe;
+                }
+        );
+
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Subscription subscribe(Action1<T> onNext) {
+        metrics.onSubscribe();
+
+        return subscribe(
+                value -> {
+                    long start = System.nanoTime();
+                    onNext.call(value);
+                    metrics.onDispatch(System.nanoTime() - start);
+                },
+                metrics::onUnsubscribe
+        );
+    }
+
+}
@@ -0,0 +1,13 @@
+package com.example.pipe;
+
+/**
+ * Function which takes 1 {@code int} parameter and returns nothing.
+ */
+public interface IntAction1 {
+
+    /**
+     * Executes the function.
+     */
+    void call(int value);
+
+}
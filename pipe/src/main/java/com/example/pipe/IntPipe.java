@@ -0,0 +1,78 @@
+package com.example.pipe;
+
+/**
+ * Pipe of {@code int} values. Same as {@link Pipe}, but values are never boxed on their way from
+ * {@link IntSource} to the subscribers, which keeps flags and counters allocation-free.
+ * <p>
+ * Use {@link #boxed()} to apply operators of {@link Pipe} or to combine it with other pipes.
+ */
+public class IntPipe extends PrimitivePipe<IntAction1> {
+
+    private IntPipe(IntSource source) {
+        super(source);
+    }
+
+    /**
+     * @return new pipe using given source of values. The pipe registers itself in the source only
+     * while it has subscribers.
+     */
+    public static IntPipe fromSource(IntSource source) {
+        return new IntPipe(source);
+    }
+
+    /**
+     * @return new pipe which has only one value in it.
+     */
+    public static IntPipe constant(int value) {
+        return fromSource(new IntSource(value));
+    }
+
+    /**
+     * Subscribes to the pipe.
+     *
+     * @param onNext callback which is notified each time new item is being pushed out of the pipe.
+     * @return {@link Subscription} object which represents connection to the pipe.
+     */
+    public Subscription subscribe(IntAction1 onNext) {
+        return new Subscription(addSubscriber(onNext));
+    }
+
+    /**
+     * @return pipe which emits the same values, boxed.
+     */
+    public Pipe<Integer> boxed() {
+        return new Pipe<>(
+                consumer -> {
+                    Subscription subscription = subscribe(consumer::call);
+
+                    return subscription::unsubscribe;
+                }
+        );
+    }
+
+    @Override
+    IntAction1 dispatcher() {
+        return this::dispatch;
+    }
+
+    /**
+     * Subscription to {@link IntPipe}.
+     */
+    public class Subscription {
+
+        private final Subscribers.Node<IntAction1> node;
+
+        Subscription(Subscribers.Node<IntAction1> node) {
+            this.node = node;
+        }
+
+        /**
+         * Unsubscribes from the {@link IntPipe} so that no new values are being accepted.
+         */
+        public void unsubscribe() {
+            removeSubscriber(node);
+        }
+
+    }
+
+}
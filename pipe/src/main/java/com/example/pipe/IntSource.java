@@ -0,0 +1,27 @@
+package com.example.pipe;
+
+/**
+ * Entry point into the {@link IntPipe}. Same as {@link Source}, but values are never boxed.
+ */
+public class IntSource extends PrimitiveSource<IntAction1> {
+
+    public IntSource() {
+    }
+
+    public IntSource(int defaultValue) {
+        super(defaultValue);
+    }
+
+    /**
+     * Pushes value into the source so that pipe will receive it.
+     */
+    public void push(int value) {
+        pushBits(value);
+    }
+
+    @Override
+    void deliver(IntAction1 consumer, long bits) {
+        consumer.call((int) bits);
+    }
+
+}
@@ -0,0 +1,13 @@
+package com.example.pipe;
+
+/**
+ * Function which takes 1 {@code long} parameter and returns nothing.
+ */
+public interface LongAction1 {
+
+    /**
+     * Executes the function.
+     */
+    void call(long value);
+
+}
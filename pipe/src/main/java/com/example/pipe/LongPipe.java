@@ -0,0 +1,78 @@
+package com.example.pipe;
+
+/**
+ * Pipe of {@code long} values. Same as {@link Pipe}, but values are never boxed on their way from
+ * {@link LongSource} to the subscribers, which keeps flags and counters allocation-free.
+ * <p>
+ * Use {@link #boxed()} to apply operators of {@link Pipe} or to combine it with other pipes.
+ */
+public class LongPipe extends PrimitivePipe<LongAction1> {
+
+    private LongPipe(LongSource source) {
+        super(source);
+    }
+
+    /**
+     * @return new pipe using given source of values. The pipe registers itself in the source only
+     * while it has subscribers.
+     */
+    public static LongPipe fromSource(LongSource source) {
+        return new LongPipe(source);
+    }
+
+    /**
+     * @return new pipe which has only one value in it.
+     */
+    public static LongPipe constant(long value) {
+        return fromSource(new LongSource(value));
+    }
+
+    /**
+     * Subscribes to the pipe.
+     *
+     * @param onNext callback which is notified each time new item is being pushed out of the pipe.
+     * @return {@link Subscription} object which represents connection to the pipe.
+     */
+    public Subscription subscribe(LongAction1 onNext) {
+        return new Subscription(addSubscriber(onNext));
+    }
+
+    /**
+     * @return pipe which emits the same values, boxed.
+     */
+    public Pipe<Long> boxed() {
+        return new Pipe<>(
+                consumer -> {
+                    Subscription subscription = subscribe(consumer::call);
+
+                    return subscription::unsubscribe;
+                }
+        );
+    }
+
+    @Override
+    LongAction1 dispatcher() {
+        return this::dispatch;
+    }
+
+    /**
+     * Subscription to {@link LongPipe}.
+     */
+    public class Subscription {
+
+        private final Subscribers.Node<LongAction1> node;
+
+        Subscription(Subscribers.Node<LongAction1> node) {
+            this.node = node;
+        }
+
+        /**
+         * Unsubscribes from the {@link LongPipe} so that no new values are being accepted.
+         */
+        public void unsubscribe() {
+            removeSubscriber(node);
+        }
+
+    }
+
+}
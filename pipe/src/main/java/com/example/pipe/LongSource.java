@@ -0,0 +1,27 @@
+package com.example.pipe;
+
+/**
+ * Entry point into the {@link LongPipe}. Same as {@link Source}, but values are never boxed.
+ */
+public class LongSource extends PrimitiveSource<LongAction1> {
+
+    public LongSource() {
+    }
+
+    public LongSource(long defaultValue) {
+        super(defaultValue);
+    }
+
+    /**
+     * Pushes value into the source so that pipe will receive it.
+     */
+    public void push(long value) {
+        pushBits(value);
+    }
+
+    @Override
+    void deliver(LongAction1 consumer, long bits) {
+        consumer.call(bits);
+    }
+
+}
@@ -0,0 +1,31 @@
+package com.example.pipe;
+
+import java.util.Arrays;
+
+/**
+ * Function which calls the actual one only when its arguments differ from those of the previous
+ * call, and returns the cached result otherwise. Arguments are compared with
+ * {@link Object#equals(Object)}.
+ */
+final class MemoizedFunction<R> implements FunctionN<R> {
+
+    private final FunctionN<R> function;
+
+    private Object[] previousArguments;
+    private R previousResult;
+
+    MemoizedFunction(FunctionN<R> function) {
+        this.function = function;
+    }
+
+    @Override
+    public synchronized R call(Object[] arguments) {
+        if (previousArguments == null || !Arrays.equals(previousArguments, arguments)) {
+            previousResult = function.call(arguments);
+            previousArguments = arguments.clone();
+        }
+
+        return previousResult;
+    }
+
+}
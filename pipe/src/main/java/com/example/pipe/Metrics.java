@@ -0,0 +1,88 @@
+package com.example.pipe;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registry of pipes which opted into instrumentation with {@link Pipe#instrumented(String)}.
+ * Pipes which are not instrumented have no overhead at all.
+ */
+public final class Metrics {
+
+    private static final long DEFAULT_SLOW_CONSUMER_THRESHOLD_NANOS = TimeUnit.MILLISECONDS.toNanos(16);
+
+    private static final ConcurrentMap<String, PipeMetrics> pipes = new ConcurrentHashMap<>();
+    private static volatile long slowConsumerThresholdNanos = DEFAULT_SLOW_CONSUMER_THRESHOLD_NANOS;
+
+    private Metrics() {
+    }
+
+    /**
+     * Sets the time after which handling of a single value is counted as a slow consumer event.
+     * Defaults to 16 ms, the duration of a frame.
+     */
+    public static void setSlowConsumerThreshold(long time, TimeUnit unit) {
+        slowConsumerThresholdNanos = unit.toNanos(time);
+    }
+
+    /**
+     * @return statistics of all the instrumented pipes, sorted by name.
+     */
+    public static List<MetricsSnapshot> snapshot() {
+        List<MetricsSnapshot> snapshots = new ArrayList<>();
+
+        for (PipeMetrics metrics : pipes.values()) {
+            snapshots.add(metrics.snapshot());
+        }
+
+        Collections.sort(snapshots, (first, second) -> first.name.compareTo(second.name));
+
+        return snapshots;
+    }
+
+    /**
+     * @return statistics of the instrumented pipe with the given name, or {@code null} if there is
+     * no such pipe.
+     */
+    public static MetricsSnapshot snapshot(String name) {
+        PipeMetrics metrics = pipes.get(name);
+
+        return metrics != null ? metrics.snapshot() : null;
+    }
+
+    /**
+     * Forgets all the statistics collected so far. Pipes stay registered and keep counting from
+     * zero.
+     */
+    public static void reset() {
+        for (PipeMetrics metrics : pipes.values()) {
+            metrics.reset();
+        }
+
+        slowConsumerThresholdNanos = DEFAULT_SLOW_CONSUMER_THRESHOLD_NANOS;
+    }
+
+    /**
+     * @return metrics for the given name. Pipes instrumented with the same name share them.
+     */
+    static PipeMetrics forName(String name) {
+        PipeMetrics metrics = pipes.get(name);
+        if (metrics != null) {
+            return metrics;
+        }
+
+        PipeMetrics created = new PipeMetrics(name);
+        PipeMetrics existing = pipes.putIfAbsent(name, created);
+
+        return existing != null ? existing : created;
+    }
+
+    static long slowConsumerThresholdNanos() {
+        return slowConsumerThresholdNanos;
+    }
+
+}
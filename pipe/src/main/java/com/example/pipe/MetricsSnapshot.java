@@ -0,0 +1,95 @@
+package com.example.pipe;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Statistics of an instrumented pipe at the moment of {@link Metrics#snapshot()}.
+ */
+public final class MetricsSnapshot {
+
+    /**
+     * Name the pipe was instrumented with.
+     */
+    public final String name;
+
+    /**
+     * Number of values emitted since the pipe was instrumented.
+     */
+    public final long emissionCount;
+
+    /**
+     * Emission rate since the previous snapshot.
+     */
+    public final double emissionsPerSecond;
+
+    /**
+     * Number of current subscribers.
+     */
+    public final int subscriberCount;
+
+    /**
+     * Median time a subscriber spent handling a value.
+     */
+    public final long p50DispatchNanos;
+
+    /**
+     * 99th percentile of time a subscriber spent handling a value.
+     */
+    public final long p99DispatchNanos;
+
+    /**
+     * Number of times a subscriber handled a value longer than
+     * {@link Metrics#setSlowConsumerThreshold(long, TimeUnit) the threshold}.
+     */
+    public final long slowConsumerEvents;
+
+    /**
+     * Number of retries made by pipes using a {@link Backoff#instrumented(String) backoff} with
+     * this name.
+     */
+    public final long retryCount;
+
+    /**
+     * Number of failures which were passed on because the backoff ran out of retries.
+     */
+    public final long exhaustedRetryCount;
+
+    MetricsSnapshot(String name,
+                    long emissionCount,
+                    double emissionsPerSecond,
+                    int subscriberCount,
+                    long p50DispatchNanos,
+                    long p99DispatchNanos,
+                    long slowConsumerEvents,
+                    long retryCount,
+                    long exhaustedRetryCount) {
+        this.name = name;
+        this.emissionCount = emissionCount;
+        this.emissionsPerSecond = emissionsPerSecond;
+        this.subscriberCount = subscriberCount;
+        this.p50DispatchNanos = p50DispatchNanos;
+        this.p99DispatchNanos = p99DispatchNanos;
+        this.slowConsumerEvents = slowConsumerEvents;
+        this.retryCount = retryCount;
+        this.exhaustedRetryCount = exhaustedRetryCount;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                Locale.US,
+                "%s: %d emissions (%.1f/s), %d subscribers, dispatch p50 %d us, p99 %d us, %d slow, %d retries (%d exhausted)",
+                name,
+                emissionCount,
+                emissionsPerSecond,
+                subscriberCount,
+                TimeUnit.NANOSECONDS.toMicros(p50DispatchNanos),
+                TimeUnit.NANOSECONDS.toMicros(p99DispatchNanos),
+                slowConsumerEvents,
+                retryCount,
+                exhaustedRetryCount
+        );
+    }
+
+}
@@ -0,0 +1,65 @@
+package com.example.pipe;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Unbounded lock-free queue for many producers and a single consumer.
+ * <p>
+ * Producers swap the tail with a single atomic operation and then link the previous tail to the
+ * new node, so {@link #offer(Object)} never retries and never blocks. Only one thread at a time
+ * may call {@link #poll()}. A value whose producer has swapped the tail but not linked the node
+ * yet is not visible to the consumer until the producer finishes {@link #offer(Object)}.
+ */
+final class MpscQueue<T> {
+
+    private final AtomicReference<Node<T>> tail;
+    private Node<T> head;
+
+    MpscQueue() {
+        Node<T> stub = new Node<>(null);
+
+        head = stub;
+        tail = new AtomicReference<>(stub);
+    }
+
+    /**
+     * Adds the value to the end of the queue. Safe to call from any thread.
+     */
+    void offer(T value) {
+        Node<T> node = new Node<>(value);
+        Node<T> previous = tail.getAndSet(node);
+
+        previous.next = node;
+    }
+
+    /**
+     * Removes the value at the head of the queue. Must be called by one thread at a time.
+     *
+     * @return {@code null} if the queue is empty.
+     */
+    T poll() {
+        Node<T> next = head.next;
+
+        if (next == null) {
+            return null;
+        }
+
+        T value = next.value;
+        next.value = null;
+        head = next;
+
+        return value;
+    }
+
+    private static final class Node<T> {
+
+        T value;
+        volatile Node<T> next;
+
+        Node(T value) {
+            this.value = value;
+        }
+
+    }
+
+}
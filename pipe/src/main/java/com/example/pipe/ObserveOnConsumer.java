@@ -0,0 +1,62 @@
+package com.example.pipe;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Consumer which passes values to the downstream on the executor.
+ * <p>
+ * Values are put into a lock-free queue which is drained by a single task. A new task is submitted
+ * only when there is no task draining the queue already, so a burst of values results in one
+ * submission to the executor.
+ */
+final class ObserveOnConsumer<T> implements Action1<T>, Runnable, Connection {
+
+    private final Action1<T> downstream;
+    private final Executor executor;
+
+    private final Queue<T> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingDrains = new AtomicInteger();
+    private volatile boolean disconnected;
+
+    ObserveOnConsumer(Action1<T> downstream, Executor executor) {
+        this.downstream = downstream;
+        this.executor = executor;
+    }
+
+    @Override
+    public void call(T value) {
+        if (disconnected) {
+            return;
+        }
+
+        queue.offer(value);
+
+        if (pendingDrains.getAndIncrement() == 0) {
+            executor.execute(this);
+        }
+    }
+
+    @Override
+    public void run() {
+        int missed = 1;
+
+        do {
+            T value;
+            while (!disconnected && (value = queue.poll()) != null) {
+                downstream.call(value);
+            }
+
+            missed = pendingDrains.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    @Override
+    public void disconnect() {
+        disconnected = true;
+        queue.clear();
+    }
+
+}
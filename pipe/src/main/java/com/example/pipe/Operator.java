@@ -0,0 +1,17 @@
+package com.example.pipe;
+
+/**
+ * Transformation of the values which travel through a {@link Pipe}.
+ */
+interface Operator<T, R> {
+
+    /**
+     * Called each time the pipe connects to its producer, so stateful operators should keep their
+     * state in the returned consumer. If the consumer holds any resources, it may also implement
+     * {@link Connection} to release them when the pipe disconnects.
+     *
+     * @return consumer which accepts upstream values and passes results to the downstream.
+     */
+    Action1<T> apply(Action1<R> downstream);
+
+}
@@ -0,0 +1,145 @@
+package com.example.pipe;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Implementations of the operators available on {@link Pipe}.
+ */
+final class Operators {
+
+    private Operators() {
+    }
+
+    static <T, R> Operator<T, R> map(Function1<T, R> mapper) {
+        return downstream -> value -> downstream.call(
+                requireNonNull(mapper.call(value))
+        );
+    }
+
+    static <T> Operator<T, T> filter(Predicate<T> predicate) {
+        return downstream -> value -> {
+            if (predicate.call(value)) {
+                downstream.call(value);
+            }
+        };
+    }
+
+    static <T> Operator<T, T> distinctUntilChanged() {
+        return downstream -> new Action1<T>() {
+
+            private T previous;
+
+            @Override
+            public void call(T value) {
+                if (!value.equals(previous)) {
+                    previous = value;
+                    downstream.call(value);
+                }
+            }
+
+        };
+    }
+
+    static <T, R> Operator<T, R> scan(R seed, Function2<R, T, R> accumulator) {
+        return downstream -> new Action1<T>() {
+
+            private R accumulated = seed;
+
+            @Override
+            public void call(T value) {
+                accumulated = requireNonNull(accumulator.call(accumulated, value));
+                downstream.call(accumulated);
+            }
+
+        };
+    }
+
+    static <T> Operator<T, T> take(int count) {
+        return downstream -> new Action1<T>() {
+
+            private int remaining = count;
+
+            @Override
+            public void call(T value) {
+                if (remaining > 0) {
+                    remaining--;
+                    downstream.call(value);
+                }
+            }
+
+        };
+    }
+
+    static <T> Operator<T, List<T>> bufferCount(int count) {
+        return downstream -> new Action1<T>() {
+
+            private List<T> batch = new ArrayList<>(count);
+
+            @Override
+            public void call(T value) {
+                batch.add(value);
+
+                if (batch.size() == count) {
+                    List<T> full = batch;
+                    batch = new ArrayList<>(count);
+                    downstream.call(Collections.unmodifiableList(full));
+                }
+            }
+
+        };
+    }
+
+    static <T> Operator<T, T> throttleFirst(Scheduler scheduler, long windowMillis) {
+        return downstream -> new Action1<T>() {
+
+            private boolean windowOpen;
+            private long windowEnd;
+
+            @Override
+            public void call(T value) {
+                long now = scheduler.now();
+
+                if (!windowOpen || now >= windowEnd) {
+                    windowOpen = true;
+                    windowEnd = now + windowMillis;
+                    downstream.call(value);
+                }
+            }
+
+        };
+    }
+
+    static <T, R> Operator<T, R> switchMap(Function1<T, Pipe<R>> mapper) {
+        return downstream -> new SwitchMapConsumer<>(downstream, mapper);
+    }
+
+    static <T> Operator<T, T> doOnCancel(Runnable onCancel) {
+        return downstream -> new CancellableConsumer<T>() {
+
+            @Override
+            public void call(T value) {
+                downstream.call(value);
+            }
+
+            @Override
+            public void disconnect() {
+                onCancel.run();
+            }
+
+        };
+    }
+
+    private interface CancellableConsumer<T> extends Action1<T>, Connection {
+    }
+
+    private static <T> T requireNonNull(T value) {
+        if (value == null) {
+            throw new NullPointerException("Null values are not permitted");
+        }
+
+        return value;
+    }
+
+}
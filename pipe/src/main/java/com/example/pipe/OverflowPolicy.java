@@ -0,0 +1,32 @@
+package com.example.pipe;
+
+/**
+ * Decides what {@link BufferedPipe} does with a new value when the queue of a subscriber is full.
+ */
+public enum OverflowPolicy {
+
+    /**
+     * Oldest queued value is dropped to make room for the new one.
+     */
+    DROP_OLDEST,
+
+    /**
+     * All queued values are dropped and only the new one is kept. Suitable for pipes of states,
+     * where only the latest one matters.
+     */
+    KEEP_LATEST,
+
+    /**
+     * Producer is blocked until the subscriber makes room in the queue.
+     */
+    BLOCK,
+
+    /**
+     * New value is dropped and the overflow is reported on the subscriber's side, so that the
+     * producer and other subscribers are not affected: {@link BufferedPipe} throws
+     * {@link IllegalStateException} from the task which delivers values on the executor, a
+     * Reactive Streams subscriber receives it in {@code onError}.
+     */
+    ERROR
+
+}
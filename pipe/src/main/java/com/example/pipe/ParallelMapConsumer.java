@@ -0,0 +1,210 @@
+package com.example.pipe;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Consumer which applies the mapper to values on the executor, at most {@code maxConcurrency} of
+ * them at once, and passes results to the downstream in the order the values arrived.
+ * <p>
+ * Each value gets a sequence number. A result is stored in the slot of its sequence number and the
+ * results are emitted, by the same drain loop as {@link ObserveOnConsumer} uses, as soon as all the
+ * previous ones were emitted. A value starts being mapped only when fewer than
+ * {@code maxConcurrency} results are waiting to be emitted, so the slots are never overwritten and
+ * a single slow value cannot make the results pile up. Values which arrive in the meantime are
+ * queued, up to {@code capacity} of them. A value which arrives when the queue is full pushes the
+ * oldest one out, since the pipe cannot make the producer slow down.
+ * <p>
+ * If the mapper throws or returns {@code null}, the slot is marked as skipped so that the results
+ * after it are still emitted, and the failure is rethrown on the executor's thread. A value the
+ * executor rejects is skipped the same way, and the rejection is rethrown once the results which
+ * became ready meanwhile are emitted.
+ */
+final class ParallelMapConsumer<T, R> implements Action1<T>, Connection {
+
+    static final int DEFAULT_CAPACITY = 128;
+
+    private static final Object SKIPPED = new Object();
+
+    private final Action1<R> downstream;
+    private final Executor executor;
+    private final Function1<T, R> mapper;
+    private final int maxConcurrency;
+    private final int capacity;
+
+    private final Queue<T> waiting = new ArrayDeque<>();
+    private final Object[] results;
+    private long started;
+    private long emitted;
+    private boolean disconnected;
+
+    private final AtomicInteger pendingDrains = new AtomicInteger();
+
+    ParallelMapConsumer(Action1<R> downstream, Executor executor, int maxConcurrency, int capacity, Function1<T, R> mapper) {
+        this.downstream = downstream;
+        this.executor = executor;
+        this.mapper = mapper;
+        this.maxConcurrency = maxConcurrency;
+        this.capacity = capacity;
+        this.results = new Object[maxConcurrency];
+    }
+
+    @Override
+    public void call(T value) {
+        synchronized (this) {
+            if (disconnected) {
+                return;
+            }
+
+            if (waiting.size() == capacity) {
+                waiting.poll();
+            }
+
+            waiting.add(value);
+        }
+
+        RuntimeException rejection = startTasks();
+
+        if (rejection != null) {
+            drain();
+            throw rejection;
+        }
+    }
+
+    /**
+     * @return exception of the executor if it rejected any of the values, which are then skipped.
+     */
+    private RuntimeException startTasks() {
+        RuntimeException rejection = null;
+
+        while (true) {
+            T value;
+            long sequence;
+
+            synchronized (this) {
+                if (disconnected || started - emitted >= maxConcurrency || waiting.isEmpty()) {
+                    return rejection;
+                }
+
+                value = waiting.poll();
+                sequence = started++;
+            }
+
+            try {
+                executor.execute(() -> map(value, sequence));
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    if (!disconnected) {
+                        results[slot(sequence)] = SKIPPED;
+                    }
+                }
+
+                if (rejection == null) {
+                    rejection = e;
+                }
+            }
+        }
+    }
+
+    private void map(T value, long sequence) {
+        Object result;
+        RuntimeException failure = null;
+
+        try {
+            result = mapper.call(value);
+
+            if (result == null) {
+                failure = new NullPointerException("Null values are not permitted");
+            }
+        } catch (RuntimeException e) {
+            result = null;
+            failure = e;
+        }
+
+        synchronized (this) {
+            if (disconnected) {
+                return;
+            }
+
+            results[slot(sequence)] = failure == null ? result : SKIPPED;
+        }
+
+        drain();
+
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private void drain() {
+        if (pendingDrains.getAndIncrement() != 0) {
+            return;
+        }
+
+        int missed = 1;
+        RuntimeException rejection = null;
+
+        do {
+            RuntimeException current;
+
+            // Skipped values free their slots, so results after them are emitted and more values
+            // are started right away
+            do {
+                R result;
+                while ((result = pollNextResult()) != null) {
+                    downstream.call(result);
+                }
+
+                current = startTasks();
+
+                if (rejection == null) {
+                    rejection = current;
+                }
+            } while (current != null);
+
+            missed = pendingDrains.addAndGet(-missed);
+        } while (missed != 0);
+
+        if (rejection != null) {
+            throw rejection;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private synchronized R pollNextResult() {
+        while (!disconnected) {
+            int slot = slot(emitted);
+            Object result = results[slot];
+
+            if (result == null) {
+                return null;
+            }
+
+            results[slot] = null;
+            emitted++;
+
+            if (result != SKIPPED) {
+                return (R) result;
+            }
+        }
+
+        return null;
+    }
+
+    private int slot(long sequence) {
+        return (int) (sequence % maxConcurrency);
+    }
+
+    @Override
+    public synchronized void disconnect() {
+        disconnected = true;
+        waiting.clear();
+
+        for (int i = 0; i < results.length; i++) {
+            results[i] = null;
+        }
+    }
+
+}
@@ -1,8 +1,8 @@
 package com.example.pipe;
 
-
-import java.util.LinkedHashSet;
-import java.util.Set;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 
 /**
@@ -12,36 +12,65 @@ import java.util.concurrent.atomic.AtomicReference;
  * For people familiar with RxJava, there are some key differences:
  * <p>
  * - There is no concept of pipe completion.
- * - Subscribing to the pipe does not invoke any actions on the producer side.
+ * - Subscribing to the pipe does not invoke any actions on the producer side, unless the pipe was
+ *   created with {@link #defer(Producer)}.
  * - Errors are never emitted.
  * - New subscribers automatically receive latest value, if there is one.
  * - Just like in RxJava2, null values are not permitted.
+ * <p>
+ * Pipes connect to their source (or, for operators such as {@link #map(Function1)}, to their
+ * upstream pipe) on the first subscriber and disconnect once the last one unsubscribes, so a pipe
+ * nobody listens to costs its source nothing. Consecutive operators are fused together, so a
+ * value travels through the whole chain within a single dispatch. Stateful operators expect values
+ * to be pushed serially.
  */
 public class Pipe<T> {
 
-    private final Set<Action1<T>> consumers = new LinkedHashSet<>();
+    private static final Runnable NO_OP = () -> {
+        // Do nothing
+    };
+
+    private final Subscribers<Action1<T>> consumers = new Subscribers<>();
     private final AtomicReference<T> latestValue = new AtomicReference<>();
 
-    private Pipe() {
+    private final Connector<T> connector;
+
+    private final Object connectionLock = new Object();
+    private Connection connection;
+    private int subscriberCount;
+
+    // Incremented for each connection and disconnection, so that a connection which lost its
+    // subscribers while being made is disconnected as soon as it is made, and values it delivers
+    // after losing them are ignored. Written under the lock, read without it when delivering.
+    private volatile long connectionGeneration;
+
+    Pipe(Connector<T> connector) {
+        this.connector = connector;
     }
 
     /**
      * @return new pipe using given source of values.
      */
     public static <T> Pipe<T> fromSource(Source<T> source) {
-        final Pipe<T> pipe = new Pipe<>();
+        return new Pipe<>(source::connect);
+    }
 
-        source.registerConsumer(value -> {
-            synchronized (pipe.consumers) {
-                pipe.latestValue.set(value);
+    /**
+     * @return new pipe which starts the producer once it has subscribers and cancels it once it
+     * has none. Creating the pipe costs nothing until someone subscribes to it, and each time the
+     * pipe is subscribed to again after losing all of its subscribers, the producer starts anew.
+     */
+    public static <T> Pipe<T> defer(Producer<T> producer) {
+        return new Pipe<>(consumer -> {
+            Source<T> source = new Source<>();
+            Connection connection = source.connect(consumer);
+            Runnable cancel = producer.start(source::push);
 
-                for (Action1<T> consumer : pipe.consumers) {
-                    consumer.call(value);
-                }
-            }
+            return () -> {
+                connection.disconnect();
+                cancel.run();
+            };
         });
-
-        return pipe;
     }
 
     /**
@@ -58,6 +87,301 @@ public class Pipe<T> {
         return fromSource(new Source<>());
     }
 
+    /**
+     * @return pipe which emits results of applying the mapper to each value of this pipe.
+     */
+    public <R> Pipe<R> map(Function1<T, R> mapper) {
+        return lift(Operators.map(mapper));
+    }
+
+    /**
+     * @return pipe which emits results of applying the mapper to each value of this pipe, like
+     * {@link #map(Function1)}, but the mapper is applied on the executor to up to
+     * {@code maxConcurrency} values at once. Results are emitted in the order of the values, on the
+     * thread of the executor. Meant for expensive mappers, since each value costs a task. A value
+     * for which the mapper throws or returns {@code null} is skipped and the failure is thrown to
+     * the executor. Values which arrive while {@code maxConcurrency} of them are in flight wait
+     * for their turn, up to {@value ParallelMapConsumer#DEFAULT_CAPACITY} of them, after which the
+     * oldest waiting value is dropped.
+     */
+    public <R> Pipe<R> parallelMap(Executor executor, int maxConcurrency, Function1<T, R> mapper) {
+        return parallelMap(executor, maxConcurrency, ParallelMapConsumer.DEFAULT_CAPACITY, mapper);
+    }
+
+    /**
+     * Same as {@link #parallelMap(Executor, int, Function1)}, but at most {@code capacity} values
+     * wait for their turn before the oldest of them is dropped.
+     */
+    public <R> Pipe<R> parallelMap(Executor executor, int maxConcurrency, int capacity, Function1<T, R> mapper) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("Max concurrency must be positive: " + maxConcurrency);
+        }
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+
+        return lift(downstream -> new ParallelMapConsumer<>(downstream, executor, maxConcurrency, capacity, mapper));
+    }
+
+    /**
+     * @return pipe which emits only those values of this pipe which match the predicate.
+     */
+    public Pipe<T> filter(Predicate<T> predicate) {
+        return lift(Operators.filter(predicate));
+    }
+
+    /**
+     * @return pipe which skips values equal to the previously emitted one.
+     */
+    public Pipe<T> distinctUntilChanged() {
+        return lift(Operators.distinctUntilChanged());
+    }
+
+    /**
+     * @return pipe which emits the result of applying the accumulator to the previous result (or
+     * the seed, initially) and each value of this pipe. The seed itself is not emitted.
+     */
+    public <R> Pipe<R> scan(R seed, Function2<R, T, R> accumulator) {
+        return lift(Operators.scan(seed, accumulator));
+    }
+
+    /**
+     * @return pipe which emits only the first {@code count} values of this pipe.
+     */
+    public Pipe<T> take(int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Count must not be negative: " + count);
+        }
+
+        return lift(Operators.take(count));
+    }
+
+    /**
+     * @return pipe which emits a value of this pipe only after no other value arrived for the given
+     * time. Values are emitted on the thread of the {@link HashedWheelScheduler#shared() shared}
+     * scheduler.
+     */
+    public Pipe<T> debounce(long timeout, TimeUnit unit) {
+        return debounce(timeout, unit, HashedWheelScheduler.shared());
+    }
+
+    /**
+     * Same as {@link #debounce(long, TimeUnit)}, but timing is driven by the given scheduler.
+     */
+    public Pipe<T> debounce(long timeout, TimeUnit unit, Scheduler scheduler) {
+        long timeoutMillis = unit.toMillis(timeout);
+
+        return lift(downstream -> new DebounceConsumer<>(downstream, scheduler, timeoutMillis));
+    }
+
+    /**
+     * @return pipe which emits a value of this pipe and then skips the values which arrive during
+     * the given window. Values are emitted on the thread which pushed them.
+     */
+    public Pipe<T> throttleFirst(long window, TimeUnit unit) {
+        return throttleFirst(window, unit, HashedWheelScheduler.shared());
+    }
+
+    /**
+     * Same as {@link #throttleFirst(long, TimeUnit)}, but time is read from the given scheduler.
+     */
+    public Pipe<T> throttleFirst(long window, TimeUnit unit, Scheduler scheduler) {
+        return lift(Operators.throttleFirst(scheduler, unit.toMillis(window)));
+    }
+
+    /**
+     * @return pipe which emits the latest value of this pipe once per period, if there were any
+     * new values during it. Values are emitted on the thread of the
+     * {@link HashedWheelScheduler#shared() shared} scheduler.
+     */
+    public Pipe<T> sample(long period, TimeUnit unit) {
+        return sample(period, unit, HashedWheelScheduler.shared());
+    }
+
+    /**
+     * Same as {@link #sample(long, TimeUnit)}, but timing is driven by the given scheduler.
+     */
+    public Pipe<T> sample(long period, TimeUnit unit, Scheduler scheduler) {
+        long periodMillis = unit.toMillis(period);
+
+        return lift(downstream -> new SampleConsumer<>(downstream, scheduler, periodMillis));
+    }
+
+    /**
+     * @return pipe which collects values of this pipe into batches of {@code count} values and
+     * emits each batch once it is full, so that the subscriber can handle them all at once. Batches
+     * are unmodifiable and each of them is a new list, so they can be kept or passed to other
+     * threads. A partially filled batch is dropped when the pipe loses its last subscriber.
+     */
+    public Pipe<List<T>> bufferCount(int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("Count must be positive: " + count);
+        }
+
+        return lift(Operators.bufferCount(count));
+    }
+
+    /**
+     * @return pipe which collects values of this pipe into batches and emits a batch once it holds
+     * {@code maxSize} values or once the given time passed since its first value. Batches emitted
+     * because of time are emitted on the thread of the {@link HashedWheelScheduler#shared() shared}
+     * scheduler, full ones on the thread which pushed the last value.
+     */
+    public Pipe<List<T>> bufferTime(long time, TimeUnit unit, int maxSize) {
+        return bufferTime(time, unit, maxSize, HashedWheelScheduler.shared());
+    }
+
+    /**
+     * Same as {@link #bufferTime(long, TimeUnit, int)}, but timing is driven by the given scheduler.
+     */
+    public Pipe<List<T>> bufferTime(long time, TimeUnit unit, int maxSize, Scheduler scheduler) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Max size must be positive: " + maxSize);
+        }
+
+        long periodMillis = unit.toMillis(time);
+
+        return lift(downstream -> new BufferTimeConsumer<>(downstream, scheduler, periodMillis, maxSize));
+    }
+
+    /**
+     * @return pipe which emits values of this pipe, provided the first of them arrives within the
+     * timeout after subscription. Otherwise the pipe unsubscribes from this one, which cancels its
+     * producer, and emits the fallback value on the thread of the
+     * {@link HashedWheelScheduler#shared() shared} scheduler. Values after the first one are not
+     * timed.
+     */
+    public Pipe<T> timeout(long timeout, TimeUnit unit, T fallback) {
+        return timeout(timeout, unit, fallback, HashedWheelScheduler.shared());
+    }
+
+    /**
+     * Same as {@link #timeout(long, TimeUnit, Object)}, but timing is driven by the given scheduler.
+     */
+    public Pipe<T> timeout(long timeout, TimeUnit unit, T fallback, Scheduler scheduler) {
+        if (fallback == null) {
+            throw new NullPointerException("Null values are not permitted");
+        }
+
+        return new Pipe<>(new TimeoutConnector<>(this, unit.toMillis(timeout), fallback, scheduler));
+    }
+
+    /**
+     * @return pipe which maps each value of this pipe to another pipe and emits values of the most
+     * recent one. Previous pipe is unsubscribed from as soon as the next value arrives, which
+     * cancels its producer if it was created with {@link #defer(Producer)} or
+     * {@link #doOnCancel(Runnable)}.
+     */
+    public <R> Pipe<R> switchMap(Function1<T, Pipe<R>> mapper) {
+        return lift(Operators.switchMap(mapper));
+    }
+
+    /**
+     * @return pipe which emits values of this pipe, except for failures: on a failure it
+     * unsubscribes from this pipe and subscribes to it again after a delay, until a value which is
+     * not a failure arrives or the backoff runs out of retries, in which case the failure is
+     * emitted. The backoff's retries are a budget for the whole subscription to the returned pipe,
+     * not for each failure, and are not restored by values which are not failures. Meant for pipes
+     * created with {@link #defer(Producer)}, which start their work anew on each subscription.
+     * Retries are made on the thread of the
+     * {@link HashedWheelScheduler#shared() shared} scheduler.
+     */
+    public Pipe<T> retry(Predicate<T> isFailure, Backoff backoff) {
+        return retry(isFailure, backoff, HashedWheelScheduler.shared());
+    }
+
+    /**
+     * Same as {@link #retry(Predicate, Backoff)}, but retries are scheduled on the given scheduler.
+     */
+    public Pipe<T> retry(Predicate<T> isFailure, Backoff backoff, Scheduler scheduler) {
+        return new Pipe<>(new RetryConnector<>(this, isFailure, backoff, scheduler));
+    }
+
+    /**
+     * @return pipe which emits the same values and runs the action once it loses its last
+     * subscriber. Producers of one-off work use it to stop the work nobody is waiting for anymore.
+     */
+    public Pipe<T> doOnCancel(Runnable onCancel) {
+        return lift(Operators.doOnCancel(onCancel));
+    }
+
+    /**
+     * @return pipe which delivers values of this pipe on the given executor. Each subscriber gets
+     * its own queue of at most {@code capacity} values, so a slow subscriber never blocks the
+     * producer or other subscribers. What happens when the queue is full is decided by the policy.
+     */
+    public BufferedPipe<T> buffered(Executor executor, int capacity, OverflowPolicy policy) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+
+        return new BufferedPipe<>(this, executor, capacity, policy);
+    }
+
+    /**
+     * @return pipe which keeps the last {@code count} values of this pipe and replays them to each
+     * new subscriber, oldest first. Values are kept even when the pipe has no subscribers, so a
+     * subscriber which comes back does not need the producer to do its work again.
+     */
+    public Pipe<T> replay(int count) {
+        return replay(count, Long.MAX_VALUE, HashedWheelScheduler.shared());
+    }
+
+    /**
+     * Same as {@link #replay(int)}, but values older than the given window are not replayed. At
+     * most {@code maxCount} values are kept.
+     */
+    public Pipe<T> replay(long window, TimeUnit unit, int maxCount) {
+        return replay(window, unit, maxCount, HashedWheelScheduler.shared());
+    }
+
+    /**
+     * Same as {@link #replay(long, TimeUnit, int)}, but time is read from the given scheduler.
+     */
+    public Pipe<T> replay(long window, TimeUnit unit, int maxCount, Scheduler scheduler) {
+        return replay(maxCount, unit.toMillis(window), scheduler);
+    }
+
+    private Pipe<T> replay(int count, long windowMillis, Scheduler scheduler) {
+        if (count < 1) {
+            throw new IllegalArgumentException("Count must be positive: " + count);
+        }
+
+        return new ReplayPipe<>(this, new ReplayBuffer<>(count, windowMillis, scheduler));
+    }
+
+    /**
+     * @return pipe which emits the same values and records its statistics under the given name:
+     * emission rate, subscriber count, time subscribers take to handle a value and slow consumer
+     * events. Statistics can be read with {@link Metrics#snapshot()}.
+     */
+    public Pipe<T> instrumented(String name) {
+        return new InstrumentedPipe<>(this, Metrics.forName(name));
+    }
+
+    /**
+     * @return pipe which emits values of this pipe on the given executor. Values which arrive while
+     * the executor is busy with the previous ones are delivered by the same task.
+     */
+    public Pipe<T> observeOn(Executor executor) {
+        return lift(downstream -> new ObserveOnConsumer<>(downstream, executor));
+    }
+
+    /**
+     * @return pipe which subscribes to this pipe on the given executor.
+     */
+    public Pipe<T> subscribeOn(Executor executor) {
+        return new Pipe<>(new SubscribeOnConnector<>(this, executor));
+    }
+
+    private <R> Pipe<R> lift(Operator<T, R> operator) {
+        return new Pipe<>(FusedConnector.append(this, operator));
+    }
+
+    Connector<T> connector() {
+        return connector;
+    }
+
     /**
      * Subscribes to the pipe.
      *
@@ -65,40 +389,134 @@ public class Pipe<T> {
      * @return {@link Subscription} object which represents connection to the pipe.
      */
     public Subscription subscribe(Action1<T> onNext) {
-        propagateLatestValue(onNext);
+        return subscribe(onNext, NO_OP);
+    }
+
+    /**
+     * Subscribes to the pipe.
+     *
+     * @param onUnsubscribe action which is executed when subscriber unsubscribes.
+     */
+    Subscription subscribe(Action1<T> onNext, Runnable onUnsubscribe) {
+        long generation = 0;
+
+        synchronized (connectionLock) {
+            subscriberCount++;
+
+            if (subscriberCount == 1) {
+                generation = ++connectionGeneration;
+            }
+        }
+
+        // Replay and connection may call consumers, so they happen outside of the lock
+        Transaction transaction = Transaction.beginReplay();
+        try {
+            replayTo(onNext);
+        } finally {
+            transaction.endReplay();
+        }
+
+        Subscription subscription = new Subscription(consumers.add(onNext), onUnsubscribe);
+
+        if (generation != 0) {
+            connect(generation);
+        }
+
+        return subscription;
+    }
 
-        synchronized (consumers) {
-            consumers.add(onNext);
+    private void connect(long generation) {
+        Connection created = connector.connect(value -> onValue(value, generation));
+        boolean abandoned;
+
+        synchronized (connectionLock) {
+            abandoned = generation != connectionGeneration;
+
+            if (!abandoned) {
+                connection = created;
+            }
         }
 
-        return new Subscription(onNext);
+        if (abandoned) {
+            created.disconnect();
+        }
     }
 
-    private void propagateLatestValue(Action1<T> onNext) {
+    /**
+     * Passes the values a new subscriber should receive right away to it. By default it is the
+     * latest value, if the pipe is connected.
+     */
+    void replayTo(Action1<T> onNext) {
         T latest = latestValue.get();
         if (latest != null) {
             onNext.call(latest);
         }
     }
 
+    private void onValue(T value, long generation) {
+        if (generation != connectionGeneration) {
+            return;
+        }
+
+        latestValue.set(value);
+
+        // Disconnected meanwhile: the latest value may have been cleared before it was set
+        if (generation != connectionGeneration) {
+            latestValue.compareAndSet(value, null);
+            return;
+        }
+
+        for (Subscribers.Node<Action1<T>> node : consumers.snapshot()) {
+            if (node.isActive()) {
+                node.consumer.call(value);
+            }
+        }
+    }
+
+    private void unsubscribe(Subscribers.Node<Action1<T>> node, Runnable onUnsubscribe) {
+        Connection disconnected = null;
+
+        synchronized (connectionLock) {
+            if (!consumers.remove(node)) {
+                return;
+            }
+
+            subscriberCount--;
+
+            if (subscriberCount == 0) {
+                connectionGeneration++;
+                disconnected = connection;
+                connection = null;
+                latestValue.set(null);
+            }
+        }
+
+        // The callback and the upstream may call back into the pipe, so they run outside of the lock
+        onUnsubscribe.run();
+
+        if (disconnected != null) {
+            disconnected.disconnect();
+        }
+    }
+
     /**
      * Subscription to {@link Pipe}.
      */
     public class Subscription {
 
-        private final Action1<T> consumer;
+        private final Subscribers.Node<Action1<T>> node;
+        private final Runnable onUnsubscribe;
 
-        public Subscription(Action1<T> consumer) {
-            this.consumer = consumer;
+        Subscription(Subscribers.Node<Action1<T>> node, Runnable onUnsubscribe) {
+            this.node = node;
+            this.onUnsubscribe = onUnsubscribe;
         }
 
         /**
          * Unsubscribes from the {@link Pipe} so that no new values are being accepted.
          */
         public void unsubscribe() {
-            synchronized (consumers) {
-                consumers.remove(consumer);
-            }
+            Pipe.this.unsubscribe(node, onUnsubscribe);
         }
 
     }
@@ -0,0 +1,97 @@
+package com.example.pipe;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runtime statistics of a single named pipe, see {@link Pipe#instrumented(String)}.
+ */
+final class PipeMetrics {
+
+    private final String name;
+
+    private final StripedCounter emissions = new StripedCounter();
+    private final StripedCounter slowConsumerEvents = new StripedCounter();
+    private final StripedCounter retries = new StripedCounter();
+    private final StripedCounter exhaustedRetries = new StripedCounter();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final LatencyHistogram dispatchTimes = new LatencyHistogram();
+
+    private long previousSnapshotNanos = System.nanoTime();
+    private long previousSnapshotEmissions;
+
+    PipeMetrics(String name) {
+        this.name = name;
+    }
+
+    void onEmission() {
+        emissions.increment();
+    }
+
+    void onSubscribe() {
+        subscriberCount.incrementAndGet();
+    }
+
+    void onUnsubscribe() {
+        subscriberCount.decrementAndGet();
+    }
+
+    void onDispatch(long nanos) {
+        dispatchTimes.record(nanos);
+
+        if (nanos >= Metrics.slowConsumerThresholdNanos()) {
+            slowConsumerEvents.increment();
+        }
+    }
+
+    void onRetry() {
+        retries.increment();
+    }
+
+    void onRetriesExhausted() {
+        exhaustedRetries.increment();
+    }
+
+    /**
+     * Sets the counters to zero. Subscriber count is kept, since it is not a statistic but the
+     * number of current subscribers.
+     */
+    synchronized void reset() {
+        emissions.reset();
+        slowConsumerEvents.reset();
+        retries.reset();
+        exhaustedRetries.reset();
+        dispatchTimes.reset();
+
+        previousSnapshotNanos = System.nanoTime();
+        previousSnapshotEmissions = 0;
+    }
+
+    /**
+     * Emission rate is measured since the previous snapshot of this pipe, other values are totals.
+     */
+    synchronized MetricsSnapshot snapshot() {
+        long now = System.nanoTime();
+        long emissionCount = emissions.sum();
+
+        double elapsedSeconds = (now - previousSnapshotNanos) / 1e9;
+        double emissionsPerSecond = elapsedSeconds > 0
+                ? (emissionCount - previousSnapshotEmissions) / elapsedSeconds
+                : 0;
+
+        previousSnapshotNanos = now;
+        previousSnapshotEmissions = emissionCount;
+
+        return new MetricsSnapshot(
+                name,
+                emissionCount,
+                emissionsPerSecond,
+                subscriberCount.get(),
+                dispatchTimes.valueAt(0.5),
+                dispatchTimes.valueAt(0.99),
+                slowConsumerEvents.sum(),
+                retries.sum(),
+                exhaustedRetries.sum()
+        );
+    }
+
+}
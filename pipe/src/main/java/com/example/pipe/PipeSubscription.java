@@ -0,0 +1,264 @@
+package com.example.pipe;
+
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Subscription of a single {@link Subscriber} to a pipe. Values pushed into the pipe are put into
+ * a bounded queue and passed to the subscriber as long as it has outstanding demand.
+ * <p>
+ * Queue is drained by whichever thread pushes a value or requests more of them, using the same
+ * drain loop as {@link BufferedConsumer}, so the subscriber is never called concurrently and the
+ * lock which guards the queue is never held while the subscriber is called.
+ */
+final class PipeSubscription<T> implements Subscription, Action1<T> {
+
+    private final Subscriber<? super T> subscriber;
+    private final OverflowPolicy policy;
+
+    private final Object[] queue;
+    private int head;
+    private int size;
+    private boolean cancelled;
+    private Throwable error;
+
+    private final AtomicLong requested = new AtomicLong();
+    private final AtomicInteger pendingDrains = new AtomicInteger();
+
+    private volatile Pipe<T>.Subscription pipeSubscription;
+
+    // Only accessed by the drain loop
+    private boolean terminated;
+
+    PipeSubscription(Subscriber<? super T> subscriber, int capacity, OverflowPolicy policy) {
+        this.subscriber = subscriber;
+        this.policy = policy;
+        this.queue = new Object[capacity];
+    }
+
+    /**
+     * Hands this subscription to the subscriber and then subscribes to the pipe, unless the
+     * subscriber cancelled right away.
+     */
+    void subscribeTo(Pipe<T> pipe) {
+        subscriber.onSubscribe(this);
+
+        if (isCancelled()) {
+            return;
+        }
+
+        pipeSubscription = pipe.subscribe(this);
+
+        if (isCancelled()) {
+            pipeSubscription.unsubscribe();
+        }
+    }
+
+    @Override
+    public void call(T value) {
+        boolean overflown = false;
+
+        synchronized (queue) {
+            if (cancelled) {
+                return;
+            }
+
+            if (size < queue.length || makeRoom()) {
+                queue[(head + size) % queue.length] = value;
+                size++;
+            } else {
+                overflown = error != null;
+            }
+        }
+
+        if (overflown) {
+            unsubscribeFromPipe();
+        }
+
+        drain();
+    }
+
+    /**
+     * Frees at least one slot in the full queue according to the policy.
+     *
+     * @return {@code false} if the value should not be queued.
+     */
+    private boolean makeRoom() {
+        switch (policy) {
+            case DROP_OLDEST:
+                poll();
+                return true;
+            case KEEP_LATEST:
+                clear();
+                return true;
+            case BLOCK:
+                return awaitRoom();
+            case ERROR:
+                error = new IllegalStateException("Subscriber did not request any of " + queue.length + " queued values");
+                cancelled = true;
+                clear();
+                return false;
+            default:
+                throw new IllegalStateException("Unknown policy: " + policy);
+        }
+    }
+
+    private boolean awaitRoom() {
+        try {
+            while (size == queue.length && !cancelled) {
+                queue.wait();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+
+        return !cancelled;
+    }
+
+    @Override
+    public void request(long n) {
+        if (n <= 0) {
+            synchronized (queue) {
+                if (cancelled) {
+                    return;
+                }
+
+                error = new IllegalArgumentException("Requested amount must be positive: " + n);
+                cancelled = true;
+                clear();
+                queue.notifyAll();
+            }
+
+            unsubscribeFromPipe();
+            drain();
+            return;
+        }
+
+        addRequested(n);
+        drain();
+    }
+
+    private void addRequested(long n) {
+        while (true) {
+            long current = requested.get();
+            if (current == Long.MAX_VALUE) {
+                return;
+            }
+
+            long updated = current + n;
+            if (updated < 0) {
+                updated = Long.MAX_VALUE;
+            }
+
+            if (requested.compareAndSet(current, updated)) {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void cancel() {
+        synchronized (queue) {
+            cancelled = true;
+            clear();
+            queue.notifyAll();
+        }
+
+        unsubscribeFromPipe();
+    }
+
+    private void unsubscribeFromPipe() {
+        Pipe<T>.Subscription subscription = pipeSubscription;
+
+        if (subscription != null) {
+            subscription.unsubscribe();
+        }
+    }
+
+    private void drain() {
+        if (pendingDrains.getAndIncrement() != 0) {
+            return;
+        }
+
+        int missed = 1;
+
+        do {
+            if (terminated) {
+                return;
+            }
+
+            long demand = requested.get();
+            long emitted = 0;
+
+            T value;
+            while (emitted != demand && (value = pollAndNotify()) != null) {
+                subscriber.onNext(value);
+                emitted++;
+            }
+
+            if (emitted != 0 && demand != Long.MAX_VALUE) {
+                requested.addAndGet(-emitted);
+            }
+
+            Throwable failure = takeError();
+            if (failure != null) {
+                terminated = true;
+                subscriber.onError(failure);
+                return;
+            }
+
+            missed = pendingDrains.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private T pollAndNotify() {
+        synchronized (queue) {
+            if (cancelled || size == 0) {
+                return null;
+            }
+
+            T value = poll();
+
+            // Only a blocked producer waits for room
+            if (policy == OverflowPolicy.BLOCK) {
+                queue.notifyAll();
+            }
+
+            return value;
+        }
+    }
+
+    private Throwable takeError() {
+        synchronized (queue) {
+            Throwable result = error;
+            error = null;
+            return result;
+        }
+    }
+
+    private boolean isCancelled() {
+        synchronized (queue) {
+            return cancelled;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private T poll() {
+        T value = (T) queue[head];
+        queue[head] = null;
+        head = (head + 1) % queue.length;
+        size--;
+        return value;
+    }
+
+    private void clear() {
+        while (size > 0) {
+            poll();
+        }
+    }
+
+}
@@ -1,80 +1,104 @@
 package com.example.pipe;
 
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.List;
+
+import static java.util.Arrays.asList;
 
 /**
  * Utility functions for pipes.
  */
 public class Pipes {
 
+    /**
+     * Runs the action as a single transaction: pipes combined with {@link #combine} or
+     * {@link #combineLatestGlitchFree} emit at most one value for all the updates made by the
+     * action, once the action is finished. Other pipes receive values as they are pushed.
+     * <p>
+     * Transactions are bound to the current thread and can be nested, in which case everything is
+     * emitted when the outermost one is finished.
+     */
+    public static void transaction(Runnable action) {
+        Transaction.run(action);
+    }
+
     /**
      * Combines pipes together and returns a new pipe which produces a new value each time one of
-     * the pipes is updated.
+     * the pipes is updated. Updates made by a single push or within a {@link #transaction} produce
+     * only one value.
      */
+    @SuppressWarnings("unchecked")
     public static <T1, T2, T3, R> Pipe<R> combine(
             Pipe<T1> pipeA,
             Pipe<T2> pipeB,
             Pipe<T3> pipeC,
             Function3<T1, T2, T3, R> mapper
     ) {
-        Source<R> resultSource = new Source<>();
-
-        AtomicReference<T1> valueA = new AtomicReference<>();
-        AtomicReference<T2> valueB = new AtomicReference<>();
-        AtomicReference<T3> valueC = new AtomicReference<>();
-
-
-        pipeA.subscribe(a -> {
-            valueA.set(a);
-
-            pushCombinedResultIfNeeded(
-                    valueA.get(),
-                    valueB.get(),
-                    valueC.get(),
-                    mapper,
-                    resultSource
-            );
-        });
-
-        pipeB.subscribe(b -> {
-            valueB.set(b);
-
-            pushCombinedResultIfNeeded(
-                    valueA.get(),
-                    valueB.get(),
-                    valueC.get(),
-                    mapper,
-                    resultSource
-            );
-        });
-
-        pipeC.subscribe(c -> {
-            valueC.set(c);
+        return combineLatestGlitchFree(
+                asList(pipeA, pipeB, pipeC),
+                values -> mapper.call(
+                        (T1) values[0],
+                        (T2) values[1],
+                        (T3) values[2]
+                )
+        );
+    }
 
-            pushCombinedResultIfNeeded(
-                    valueA.get(),
-                    valueB.get(),
-                    valueC.get(),
-                    mapper,
-                    resultSource
-            );
-        });
+    /**
+     * Combines any number of pipes together and returns a new pipe which produces a new value each
+     * time one of the pipes is updated. Nothing is emitted until each pipe has emitted at least
+     * once.
+     *
+     * @param mapper function which receives latest values of the pipes, in the order of the list.
+     */
+    public static <R> Pipe<R> combineLatest(List<? extends Pipe<?>> pipes, FunctionN<R> mapper) {
+        return new Pipe<>(new CombineLatestConnector<>(pipes, mapper, false));
+    }
 
-        return Pipe.fromSource(resultSource);
+    /**
+     * Same as {@link #combineLatest(List, FunctionN)}, but all the updates caused by a single
+     * {@link Source#push(Object)} or made within a {@link #transaction} produce exactly one value.
+     * Use it when several of the pipes are updated together, so that the mapper never sees a mix
+     * of old and new values.
+     */
+    public static <R> Pipe<R> combineLatestGlitchFree(List<? extends Pipe<?>> pipes, FunctionN<R> mapper) {
+        return new Pipe<>(new CombineLatestConnector<>(pipes, mapper, true));
     }
 
-    private static <T1, T2, T3, R> void pushCombinedResultIfNeeded(
-            T1 a,
-            T2 b,
-            T3 c,
-            Function3<T1, T2, T3, R> mapper,
-            Source<R> resultSource
+    /**
+     * Same as {@link #combine}, but for derived state which is expensive to compute, see
+     * {@link #derived(List, FunctionN)}.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T1, T2, T3, R> Pipe<R> derived(
+            Pipe<T1> pipeA,
+            Pipe<T2> pipeB,
+            Pipe<T3> pipeC,
+            Function3<T1, T2, T3, R> mapper
     ) {
-        if (a != null && b != null && c != null) {
-            resultSource.push(
-                    mapper.call(a, b, c)
-            );
-        }
+        return derived(
+                asList(pipeA, pipeB, pipeC),
+                values -> mapper.call(
+                        (T1) values[0],
+                        (T2) values[1],
+                        (T3) values[2]
+                )
+        );
+    }
+
+    /**
+     * Same as {@link #combineLatestGlitchFree(List, FunctionN)}, but the mapper is called only when
+     * the values of the pipes actually changed (according to {@code equals}) since the previous
+     * call. Otherwise the cached result is emitted again: subscribers which also listen to other
+     * pipes may need it to replace what those made them show in the meantime. Add
+     * {@link Pipe#distinctUntilChanged()} where repeated values are not wanted.
+     * <p>
+     * The result is cached for the lifetime of the returned pipe, including periods without
+     * subscribers. Since the pipe is connected to its inputs only while it is observed, keeping it
+     * around costs nothing while nobody listens, and a subscriber which comes back to unchanged
+     * inputs receives the cached result without the mapper being called.
+     */
+    public static <R> Pipe<R> derived(List<? extends Pipe<?>> pipes, FunctionN<R> mapper) {
+        return combineLatestGlitchFree(pipes, new MemoizedFunction<>(mapper));
     }
 
 }
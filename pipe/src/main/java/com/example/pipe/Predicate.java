@@ -0,0 +1,13 @@
+package com.example.pipe;
+
+/**
+ * Function which takes 1 argument and decides whether it matches a condition.
+ */
+public interface Predicate<T> {
+
+    /**
+     * @return {@code true} if value matches the condition.
+     */
+    boolean call(T value);
+
+}
@@ -0,0 +1,147 @@
+package com.example.pipe;
+
+/**
+ * Base of the pipes of primitive values, such as {@link IntPipe}. Implements the same ref-counted
+ * connection to the source as {@link Pipe}, so that subclasses only provide the consumer through
+ * which the source calls them and their typed subscriptions.
+ * <p>
+ * The pipe has no operators of its own, so its latest value is always that of its source, and new
+ * subscribers receive it from there.
+ *
+ * @param <C> type of the consumer of values, such as {@link IntAction1}.
+ */
+abstract class PrimitivePipe<C> {
+
+    private final Subscribers<C> consumers = new Subscribers<>();
+
+    private final PrimitiveSource<C> source;
+
+    private final Object connectionLock = new Object();
+    private Subscribers.Node<C> connection;
+    private int subscriberCount;
+
+    // Incremented for each connection, so that one which lost its subscribers while being made is
+    // removed from the source as soon as it is made
+    private long connectionGeneration;
+
+    // Set once the connection has taken the subscribers it replays the latest value to. Those which
+    // come later replay it themselves
+    private boolean connectionReplayed;
+
+    PrimitivePipe(PrimitiveSource<C> source) {
+        this.source = source;
+    }
+
+    /**
+     * @return consumer which the pipe registers in the source. Should pass the values to
+     * {@link #dispatch(long)}.
+     */
+    abstract C dispatcher();
+
+    /**
+     * Passes the value to the subscribers of the pipe.
+     */
+    final void dispatch(long bits) {
+        for (Subscribers.Node<C> node : consumers.snapshot()) {
+            if (node.isActive()) {
+                source.deliver(node.consumer, bits);
+            }
+        }
+    }
+
+    /**
+     * Registers the subscriber and connects to the source if it is the first one. Consumers are
+     * called outside of the lock.
+     *
+     * @return node which identifies the subscriber in {@link #removeSubscriber(Subscribers.Node)}.
+     */
+    final Subscribers.Node<C> addSubscriber(C onNext) {
+        long generation = 0;
+        boolean replay;
+        Subscribers.Node<C> node;
+
+        synchronized (connectionLock) {
+            subscriberCount++;
+
+            if (subscriberCount == 1) {
+                generation = ++connectionGeneration;
+            }
+
+            node = consumers.add(onNext);
+            replay = connectionReplayed;
+        }
+
+        if (replay) {
+            source.replayTo(onNext);
+        }
+
+        if (generation != 0) {
+            connect(generation);
+        }
+
+        return node;
+    }
+
+    /**
+     * Replays the latest value of the source to the subscribers registered so far, then registers
+     * in the source. Each subscriber thus receives the latest value exactly once, either from the
+     * connection or by itself.
+     */
+    private void connect(long generation) {
+        Subscribers.Node<C>[] replayTargets;
+
+        synchronized (connectionLock) {
+            if (generation != connectionGeneration) {
+                return;
+            }
+
+            replayTargets = consumers.snapshot();
+            connectionReplayed = true;
+        }
+
+        for (Subscribers.Node<C> node : replayTargets) {
+            if (node.isActive()) {
+                source.replayTo(node.consumer);
+            }
+        }
+
+        Subscribers.Node<C> created = source.registerConsumer(dispatcher());
+        boolean abandoned;
+
+        synchronized (connectionLock) {
+            abandoned = generation != connectionGeneration;
+
+            if (!abandoned) {
+                connection = created;
+            }
+        }
+
+        if (abandoned) {
+            source.unregisterConsumer(created);
+        }
+    }
+
+    /**
+     * Removes the subscriber and disconnects from the source if it was the last one.
+     */
+    final void removeSubscriber(Subscribers.Node<C> node) {
+        synchronized (connectionLock) {
+            if (!consumers.remove(node)) {
+                return;
+            }
+
+            subscriberCount--;
+
+            if (subscriberCount == 0) {
+                connectionGeneration++;
+                connectionReplayed = false;
+
+                if (connection != null) {
+                    source.unregisterConsumer(connection);
+                    connection = null;
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,109 @@
+package com.example.pipe;
+
+/**
+ * Base of the sources of primitive values, such as {@link IntSource}. Keeps the consumers, the
+ * latest value and the dispatch through the {@link Transaction} trampoline, so that subclasses
+ * only convert values to and from their bits and call their consumers.
+ * <p>
+ * Values are passed around as {@code long} bits, which hold any of the primitive values without
+ * boxing them.
+ *
+ * @param <C> type of the consumer of values, such as {@link IntAction1}.
+ */
+abstract class PrimitiveSource<C> {
+
+    private final Subscribers<C> consumers = new Subscribers<>();
+
+    // Written before latestBits and read after it, so the volatile write of latestBits publishes
+    // both of them as a single state. A reader never sees the flag without a value.
+    private boolean hasLatest;
+    private volatile long latestBits;
+
+    PrimitiveSource() {
+    }
+
+    PrimitiveSource(long defaultBits) {
+        hasLatest = true;
+        latestBits = defaultBits;
+    }
+
+    /**
+     * Calls the consumer with the value the bits stand for.
+     */
+    abstract void deliver(C consumer, long bits);
+
+    /**
+     * Pushes value into the source so that pipes will receive it.
+     */
+    final void pushBits(long bits) {
+        Transaction transaction = Transaction.begin();
+        try {
+            if (transaction.beginDispatch()) {
+                RuntimeException failure = null;
+                try {
+                    dispatch(bits);
+                } catch (RuntimeException e) {
+                    failure = e;
+                } finally {
+                    transaction.endDispatch(failure);
+                }
+            } else {
+                transaction.queueDispatch(() -> dispatch(bits));
+            }
+        } finally {
+            transaction.end();
+        }
+    }
+
+    private void dispatch(long bits) {
+        hasLatest = true;
+        latestBits = bits;
+
+        for (Subscribers.Node<C> node : consumers.snapshot()) {
+            if (node.isActive()) {
+                deliver(node.consumer, bits);
+            }
+        }
+    }
+
+    /**
+     * Passes the latest value, if there is one, to the consumer.
+     */
+    final void replayTo(C consumer) {
+        long bits = latestBits;
+
+        if (hasLatest) {
+            Transaction transaction = Transaction.beginReplay();
+            try {
+                deliver(consumer, bits);
+            } finally {
+                transaction.endReplay();
+            }
+        }
+    }
+
+    /**
+     * Registers new consumer which would be notified about new values. The latest value is not
+     * replayed to it, see {@link #replayTo(Object)}.
+     *
+     * @return node which identifies the consumer in {@link #unregisterConsumer(Subscribers.Node)}.
+     */
+    final Subscribers.Node<C> registerConsumer(C consumer) {
+        return consumers.add(consumer);
+    }
+
+    /**
+     * Stops notifying previously registered consumer.
+     */
+    final void unregisterConsumer(Subscribers.Node<C> node) {
+        consumers.remove(node);
+    }
+
+    /**
+     * @return number of currently registered consumers.
+     */
+    final int consumerCount() {
+        return consumers.size();
+    }
+
+}
@@ -0,0 +1,16 @@
+package com.example.pipe;
+
+/**
+ * Work which produces values of a pipe created with {@link Pipe#defer(Producer)}.
+ */
+public interface Producer<T> {
+
+    /**
+     * Starts the work. Called each time the pipe gets its first subscriber.
+     *
+     * @param emitter pushes produced values into the pipe, from any thread.
+     * @return action which cancels the work. Called once the pipe loses its last subscriber.
+     */
+    Runnable start(Action1<T> emitter);
+
+}
@@ -0,0 +1,89 @@
+package com.example.pipe;
+
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Subscriber which passes values of a publisher to the consumer of a pipe and keeps requesting
+ * them in batches.
+ * <p>
+ * Next batch is requested once three quarters of the previous one were received, so that the
+ * publisher rarely waits for demand while the number of requests stays low.
+ */
+final class PublisherConnection<T> implements Subscriber<T>, Connection {
+
+    private static final Subscription CANCELLED = new Subscription() {
+        @Override
+        public void request(long n) {
+            // Do nothing
+        }
+
+        @Override
+        public void cancel() {
+            // Do nothing
+        }
+    };
+
+    private final Action1<T> consumer;
+    private final Action1<Throwable> onError;
+    private final int prefetch;
+    private final int limit;
+
+    private final AtomicReference<Subscription> subscription = new AtomicReference<>();
+
+    // Only accessed by onNext, which the publisher calls serially
+    private int received;
+
+    PublisherConnection(Action1<T> consumer, int prefetch, Action1<Throwable> onError) {
+        this.consumer = consumer;
+        this.onError = onError;
+        this.prefetch = prefetch;
+        this.limit = prefetch - (prefetch >> 2);
+    }
+
+    @Override
+    public void onSubscribe(Subscription subscription) {
+        if (!this.subscription.compareAndSet(null, subscription)) {
+            subscription.cancel();
+            return;
+        }
+
+        subscription.request(prefetch);
+    }
+
+    @Override
+    public void onNext(T value) {
+        if (subscription.get() == CANCELLED) {
+            return;
+        }
+
+        consumer.call(value);
+
+        if (++received == limit) {
+            received = 0;
+            subscription.get().request(limit);
+        }
+    }
+
+    @Override
+    public void onError(Throwable error) {
+        onError.call(error);
+    }
+
+    @Override
+    public void onComplete() {
+        // Pipes never complete
+    }
+
+    @Override
+    public void disconnect() {
+        Subscription current = subscription.getAndSet(CANCELLED);
+
+        if (current != null) {
+            current.cancel();
+        }
+    }
+
+}
@@ -0,0 +1,61 @@
+package com.example.pipe;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+
+/**
+ * Adapters between pipes and <a href="http://www.reactive-streams.org">Reactive Streams</a>, for
+ * consumers which process values at their own pace and signal how many they are ready to take.
+ * Publishers can be converted to {@code java.util.concurrent.Flow} with {@code FlowAdapters} where
+ * it is available.
+ * <p>
+ * Pipes never complete and never fail, so publishers created from them never call
+ * {@link Subscriber#onComplete()} and call {@link Subscriber#onError(Throwable)} only when the
+ * overflow policy says so.
+ */
+public final class ReactiveStreams {
+
+    private ReactiveStreams() {
+    }
+
+    /**
+     * @return publisher which subscribes to the pipe for each of its subscribers and delivers values
+     * only as they are requested. Values which arrive while there is no demand are kept in a queue
+     * of at most {@code capacity} values, what happens when it is full is decided by the policy.
+     * With {@link OverflowPolicy#ERROR} the subscriber receives {@link IllegalStateException} and
+     * is cancelled, instead of the producer receiving it.
+     */
+    public static <T> Publisher<T> toPublisher(Pipe<T> pipe, int capacity, OverflowPolicy policy) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+
+        return subscriber -> {
+            if (subscriber == null) {
+                throw new NullPointerException("Subscriber must not be null");
+            }
+
+            new PipeSubscription<T>(subscriber, capacity, policy).subscribeTo(pipe);
+        };
+    }
+
+    /**
+     * @return pipe which subscribes to the publisher once it has subscribers. Values are requested
+     * in batches: {@code prefetch} at first, then more once three quarters of them were received.
+     * Completion of the publisher is ignored, the pipe keeps its latest value.
+     *
+     * @param onError called with the error the publisher failed with, if it does.
+     */
+    public static <T> Pipe<T> fromPublisher(Publisher<T> publisher, int prefetch, Action1<Throwable> onError) {
+        if (prefetch < 1) {
+            throw new IllegalArgumentException("Prefetch must be positive: " + prefetch);
+        }
+
+        return new Pipe<>(consumer -> {
+            PublisherConnection<T> connection = new PublisherConnection<>(consumer, prefetch, onError);
+            publisher.subscribe(connection);
+            return connection;
+        });
+    }
+
+}
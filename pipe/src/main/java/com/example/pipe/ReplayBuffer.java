@@ -0,0 +1,93 @@
+package com.example.pipe;
+
+/**
+ * Fixed-size ring of the most recent values, together with the time each of them was recorded.
+ * Recording a value only overwrites slots of preallocated arrays, so it does not allocate.
+ * <p>
+ * Values older than the window are skipped when the history is replayed and are overwritten as
+ * new values arrive.
+ */
+final class ReplayBuffer<T> {
+
+    private final Object[] values;
+    private final long[] timestamps;
+    private final long windowMillis;
+    private final Scheduler scheduler;
+
+    private int head;
+    private int size;
+
+    /**
+     * @param windowMillis for how long values are kept, {@link Long#MAX_VALUE} keeps them until
+     *                     they are overwritten.
+     */
+    ReplayBuffer(int capacity, long windowMillis, Scheduler scheduler) {
+        this.values = new Object[capacity];
+        this.timestamps = new long[capacity];
+        this.windowMillis = windowMillis;
+        this.scheduler = scheduler;
+    }
+
+    synchronized void add(T value) {
+        int tail = (head + size) % values.length;
+
+        values[tail] = value;
+        timestamps[tail] = scheduler.now();
+
+        if (size == values.length) {
+            head = (head + 1) % values.length;
+        } else {
+            size++;
+        }
+    }
+
+    /**
+     * @return {@code true} if the given value equals the most recent one and it has not expired
+     * yet.
+     */
+    synchronized boolean isNewest(T value) {
+        if (size == 0) {
+            return false;
+        }
+
+        int newest = (head + size - 1) % values.length;
+
+        return values[newest].equals(value) && !isExpired(newest, scheduler.now());
+    }
+
+    /**
+     * Passes the values which have not expired yet to the consumer, oldest first. The consumer is
+     * called outside of the lock, so that it can take its time without blocking the producer.
+     */
+    void replayTo(Action1<T> consumer) {
+        Object[] snapshot = snapshot();
+
+        for (Object value : snapshot) {
+            @SuppressWarnings("unchecked")
+            T typed = (T) value;
+
+            consumer.call(typed);
+        }
+    }
+
+    private synchronized Object[] snapshot() {
+        long now = scheduler.now();
+
+        int skipped = 0;
+        while (skipped < size && isExpired((head + skipped) % values.length, now)) {
+            skipped++;
+        }
+
+        Object[] result = new Object[size - skipped];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = values[(head + skipped + i) % values.length];
+        }
+
+        return result;
+    }
+
+    private boolean isExpired(int index, long now) {
+        return windowMillis != Long.MAX_VALUE && now - timestamps[index] > windowMillis;
+    }
+
+}
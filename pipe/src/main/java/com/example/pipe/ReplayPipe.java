@@ -0,0 +1,53 @@
+package com.example.pipe;
+
+/**
+ * Pipe which records recent values of its upstream and replays them to each new subscriber,
+ * instead of only the latest one.
+ * <p>
+ * History outlives the connection to the upstream, so a subscriber which comes back after
+ * everyone has unsubscribed still catches up. When the upstream is connected again and replays
+ * its latest value, it is not recorded again if it equals the newest one. Values the upstream
+ * emits anew are always recorded, even if they repeat the newest one.
+ *
+ * @see Pipe#replay(int)
+ * @see Pipe#replay(long, java.util.concurrent.TimeUnit, int)
+ */
+final class ReplayPipe<T> extends Pipe<T> {
+
+    private final ReplayBuffer<T> buffer;
+
+    ReplayPipe(Pipe<T> upstream, ReplayBuffer<T> buffer) {
+        super(
+                consumer -> {
+                    Action1<T> recorder = new Action1<T>() {
+                        private boolean first = true;
+
+                        @Override
+                        public void call(T value) {
+                            boolean replayed = first
+                                    && Transaction.isReplaying()
+                                    && buffer.isNewest(value);
+                            first = false;
+
+                            if (!replayed) {
+                                buffer.add(value);
+                                consumer.call(value);
+                            }
+                        }
+                    };
+
+                    Pipe<T>.Subscription subscription = upstream.subscribe(recorder);
+
+                    return subscription::unsubscribe;
+                }
+        );
+
+        this.buffer = buffer;
+    }
+
+    @Override
+    void replayTo(Action1<T> onNext) {
+        buffer.replayTo(onNext);
+    }
+
+}
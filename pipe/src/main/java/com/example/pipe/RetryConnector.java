@@ -0,0 +1,154 @@
+package com.example.pipe;
+
+/**
+ * Connects to the upstream pipe and, when it emits a failure, disconnects from it and connects
+ * again after a delay decided by {@link Backoff}.
+ *
+ * @see Pipe#retry(Predicate, Backoff, Scheduler)
+ */
+final class RetryConnector<T> implements Connector<T> {
+
+    private final Pipe<T> upstream;
+    private final Predicate<T> isFailure;
+    private final Backoff backoff;
+    private final Scheduler scheduler;
+
+    RetryConnector(Pipe<T> upstream, Predicate<T> isFailure, Backoff backoff, Scheduler scheduler) {
+        this.upstream = upstream;
+        this.isFailure = isFailure;
+        this.backoff = backoff;
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    public Connection connect(Action1<T> consumer) {
+        RetryingConnection connection = new RetryingConnection(consumer, backoff.metrics());
+
+        connection.subscribe();
+
+        return connection;
+    }
+
+    private final class RetryingConnection implements Connection {
+
+        private final Action1<T> consumer;
+        private final PipeMetrics metrics;
+
+        private Pipe<T>.Subscription subscription;
+        private Scheduler.Task pendingRetry;
+
+        // Not reset by successful values, so that the budget is shared by the whole connection and
+        // an upstream which keeps alternating successes with failures cannot retry forever
+        private int retries;
+        private boolean disconnected;
+
+        // Incremented for each subscription, so that values of the abandoned ones are ignored
+        private int generation;
+
+        RetryingConnection(Action1<T> consumer, PipeMetrics metrics) {
+            this.consumer = consumer;
+            this.metrics = metrics;
+        }
+
+        void subscribe() {
+            int current;
+
+            synchronized (this) {
+                if (disconnected) {
+                    return;
+                }
+
+                pendingRetry = null;
+                current = ++generation;
+            }
+
+            Pipe<T>.Subscription created = upstream.subscribe(value -> onValue(value, current));
+
+            synchronized (this) {
+                if (disconnected || generation != current) {
+                    created.unsubscribe();
+                } else {
+                    subscription = created;
+                }
+            }
+        }
+
+        private void onValue(T value, int valueGeneration) {
+            boolean failure = isFailure.call(value);
+            boolean retry;
+            Pipe<T>.Subscription abandoned = null;
+
+            synchronized (this) {
+                if (disconnected || generation != valueGeneration) {
+                    return;
+                }
+
+                if (!failure) {
+                    retry = false;
+                } else if (retries < backoff.maxRetries()) {
+                    retry = true;
+                    abandoned = scheduleRetry();
+                } else {
+                    retry = false;
+                    onRetriesExhausted();
+                }
+            }
+
+            if (!retry) {
+                consumer.call(value);
+            } else if (abandoned != null) {
+                abandoned.unsubscribe();
+            }
+        }
+
+        /**
+         * @return current subscription, which should be abandoned. {@code null} if the failure
+         * arrived before {@link Pipe#subscribe(Action1)} returned, in which case
+         * {@link #subscribe()} abandons it.
+         */
+        private Pipe<T>.Subscription scheduleRetry() {
+            long delay = backoff.delayMillis(retries++);
+
+            generation++;
+            pendingRetry = scheduler.schedule(this::subscribe, delay);
+
+            if (metrics != null) {
+                metrics.onRetry();
+            }
+
+            Pipe<T>.Subscription current = subscription;
+            subscription = null;
+
+            return current;
+        }
+
+        private void onRetriesExhausted() {
+            if (metrics != null) {
+                metrics.onRetriesExhausted();
+            }
+        }
+
+        @Override
+        public void disconnect() {
+            Pipe<T>.Subscription current;
+
+            synchronized (this) {
+                disconnected = true;
+
+                if (pendingRetry != null) {
+                    pendingRetry.cancel();
+                    pendingRetry = null;
+                }
+
+                current = subscription;
+                subscription = null;
+            }
+
+            if (current != null) {
+                current.unsubscribe();
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,346 @@
+package com.example.pipe;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Source which publishes values into a preallocated ring buffer. Each pipe connected to the source
+ * reads the ring on its own thread, at its own pace.
+ * <p>
+ * Publishing does not depend on the number of pipes: a producer claims the next sequence, stores
+ * the value in its slot and marks the slot as available, without allocating anything or calling
+ * any consumer. Each consumer tracks the sequence it has handled, and a producer which is about to
+ * overwrite a slot not yet handled by the slowest consumer waits for it. Any number of threads can
+ * push into the source.
+ * <p>
+ * Unlike {@link Source}, values reach the pipes asynchronously, so pushes do not take part in
+ * {@link Pipes#transaction(Runnable) transactions}.
+ * <p>
+ * The consumers run on the executor passed to the constructor, one long-running task per
+ * connection. By default they share a pool of daemon threads, so that reconnecting pipes reuse
+ * the threads of the disconnected ones.
+ */
+public class RingBufferSource<T> extends Source<T> {
+
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 100;
+
+    /**
+     * Sequence of a consumer which has been added but has not read its start sequence yet. It is
+     * lower than any wrap point, so producers wait until the consumer knows where it starts.
+     */
+    private static final long UNSTARTED = Long.MIN_VALUE;
+
+    private static final ExecutorService CONSUMER_THREADS = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "RingBufferSource consumer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Executor executor;
+    private final Object[] slots;
+    private final int mask;
+    private final int indexShift;
+
+    /**
+     * Round of the sequence which was last published into each slot, so that a consumer can tell
+     * whether a slot holds the value it is waiting for.
+     */
+    private final AtomicIntegerArray published;
+
+    /**
+     * Highest claimed sequence.
+     */
+    private final AtomicLong cursor = new AtomicLong(-1);
+    private final AtomicLong cachedGatingSequence = new AtomicLong(-1);
+
+    private final Subscribers<RingConsumer> consumers = new Subscribers<>();
+
+    private final Object sleepLock = new Object();
+    private final AtomicInteger sleepingConsumers = new AtomicInteger();
+
+    private volatile T latestValue;
+
+    /**
+     * Sequence of {@link #latestValue}, so that a producer which publishes after a faster one does
+     * not replace its newer value.
+     */
+    private final AtomicLong latestSequence = new AtomicLong(-1);
+
+    /**
+     * @param capacity number of slots, rounded up to the power of two. A producer waits when the
+     *                 slowest consumer is this many values behind.
+     */
+    public RingBufferSource(int capacity) {
+        this(capacity, null);
+    }
+
+    public RingBufferSource(int capacity, T defaultValue) {
+        this(capacity, defaultValue, CONSUMER_THREADS);
+    }
+
+    /**
+     * @param executor runs one task per connected pipe for as long as the pipe stays connected.
+     *                 It must be able to run all of them concurrently.
+     */
+    public RingBufferSource(int capacity, T defaultValue, Executor executor) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+
+        this.executor = executor;
+        this.slots = new Object[size];
+        this.mask = size - 1;
+        this.indexShift = Integer.numberOfTrailingZeros(size);
+        this.published = new AtomicIntegerArray(size);
+        this.latestValue = defaultValue;
+
+        for (int i = 0; i < size; i++) {
+            published.set(i, -1);
+        }
+    }
+
+    /**
+     * Publishes the value into the ring. Waits if the slowest pipe has not handled the value which
+     * is about to be overwritten yet.
+     */
+    @Override
+    public void push(T value) {
+        if (value == null) {
+            throw new NullPointerException("Null values are not permitted");
+        }
+
+        long sequence = claim();
+        slots[index(sequence)] = value;
+        published.set(index(sequence), round(sequence));
+
+        updateLatestValue(sequence, value);
+
+        if (sleepingConsumers.get() > 0) {
+            synchronized (sleepLock) {
+                sleepLock.notifyAll();
+            }
+        }
+    }
+
+    private void updateLatestValue(long sequence, T value) {
+        long current;
+        while (sequence > (current = latestSequence.get())) {
+            if (latestSequence.compareAndSet(current, sequence)) {
+                latestValue = value;
+                return;
+            }
+        }
+    }
+
+    private long claim() {
+        while (true) {
+            long current = cursor.get();
+            long next = current + 1;
+            long wrapPoint = next - slots.length;
+
+            if (wrapPoint > cachedGatingSequence.get()) {
+                long gatingSequence = minimumConsumerSequence(current);
+                cachedGatingSequence.set(gatingSequence);
+
+                if (wrapPoint > gatingSequence) {
+                    LockSupport.parkNanos(1);
+                    continue;
+                }
+            }
+
+            if (cursor.compareAndSet(current, next)) {
+                return next;
+            }
+        }
+    }
+
+    private long minimumConsumerSequence(long fallback) {
+        long minimum = fallback;
+
+        for (Subscribers.Node<RingConsumer> node : consumers.snapshot()) {
+            if (node.isActive()) {
+                minimum = Math.min(minimum, node.consumer.sequence.get());
+            }
+        }
+
+        return minimum;
+    }
+
+    private boolean isPublished(long sequence) {
+        return published.get(index(sequence)) == round(sequence);
+    }
+
+    @SuppressWarnings("unchecked")
+    private T valueAt(long sequence) {
+        return (T) slots[index(sequence)];
+    }
+
+    private int index(long sequence) {
+        return (int) sequence & mask;
+    }
+
+    private int round(long sequence) {
+        return (int) (sequence >>> indexShift);
+    }
+
+    /**
+     * Starts a task which delivers the values to the consumer, starting with the latest one.
+     * <p>
+     * The consumer gates the producers before it reads its start sequence: otherwise a producer
+     * which checked the consumers just before it was added could overwrite the slot it starts
+     * from.
+     */
+    @Override
+    Connection connect(Action1<T> consumer) {
+        RingConsumer ringConsumer = new RingConsumer(consumer, latestValue);
+        ringConsumer.node = consumers.add(ringConsumer);
+        ringConsumer.sequence.set(cursor.get());
+
+        try {
+            executor.execute(ringConsumer);
+        } catch (RuntimeException e) {
+            consumers.remove(ringConsumer.node);
+            throw e;
+        }
+
+        return () -> {
+            if (consumers.remove(ringConsumer.node)) {
+                ringConsumer.stop();
+            }
+        };
+    }
+
+    @Override
+    int consumerCount() {
+        return consumers.size();
+    }
+
+    /**
+     * Reads the ring on an executor thread and passes the values to the consumer.
+     * <p>
+     * A value the consumer fails on is reported to the thread's uncaught exception handler and
+     * skipped. If the task ends anyway, the consumer stops gating the producers, so that they
+     * do not wait for it forever.
+     */
+    private final class RingConsumer implements Runnable {
+
+        private final Action1<T> consumer;
+        private final T initialValue;
+
+        Subscribers.Node<RingConsumer> node;
+
+        /**
+         * Highest sequence handled by this consumer.
+         */
+        final AtomicLong sequence;
+
+        private volatile boolean running = true;
+
+        RingConsumer(Action1<T> consumer, T initialValue) {
+            this.consumer = consumer;
+            this.sequence = new AtomicLong(UNSTARTED);
+            this.initialValue = initialValue;
+        }
+
+        @Override
+        public void run() {
+            try {
+                if (initialValue != null) {
+                    Transaction transaction = Transaction.beginReplay();
+                    try {
+                        deliver(initialValue);
+                    } finally {
+                        transaction.endReplay();
+                    }
+                }
+
+                long next = sequence.get() + 1;
+
+                while (running) {
+                    if (!awaitPublished(next)) {
+                        return;
+                    }
+
+                    long last = next;
+                    while (isPublished(last + 1)) {
+                        last++;
+                    }
+
+                    for (long current = next; current <= last && running; current++) {
+                        deliver(valueAt(current));
+                    }
+
+                    sequence.set(last);
+                    next = last + 1;
+                }
+            } finally {
+                consumers.remove(node);
+            }
+        }
+
+        private void deliver(T value) {
+            try {
+                consumer.call(value);
+            } catch (RuntimeException e) {
+                Thread thread = Thread.currentThread();
+                thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+            }
+        }
+
+        /**
+         * Spins, then yields, then sleeps until the sequence is published.
+         *
+         * @return {@code false} if the consumer was stopped while waiting.
+         */
+        private boolean awaitPublished(long next) {
+            for (int i = 0; i < SPIN_TRIES + YIELD_TRIES; i++) {
+                if (isPublished(next)) {
+                    return true;
+                }
+                if (!running) {
+                    return false;
+                }
+                if (i >= SPIN_TRIES) {
+                    Thread.yield();
+                }
+            }
+
+            sleepingConsumers.incrementAndGet();
+            try {
+                synchronized (sleepLock) {
+                    while (running && !isPublished(next)) {
+                        sleepLock.wait();
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            } finally {
+                sleepingConsumers.decrementAndGet();
+            }
+
+            return running;
+        }
+
+        void stop() {
+            running = false;
+
+            synchronized (sleepLock) {
+                sleepLock.notifyAll();
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,63 @@
+package com.example.pipe;
+
+/**
+ * Consumer which passes to the downstream only the latest value received during each period. The
+ * period starts with the first value, so nothing is scheduled while the upstream is silent.
+ */
+final class SampleConsumer<T> implements Action1<T>, Connection {
+
+    private final Action1<T> downstream;
+    private final Scheduler scheduler;
+    private final long periodMillis;
+
+    private T latest;
+    private Scheduler.Task pendingTask;
+    private boolean disconnected;
+
+    SampleConsumer(Action1<T> downstream, Scheduler scheduler, long periodMillis) {
+        this.downstream = downstream;
+        this.scheduler = scheduler;
+        this.periodMillis = periodMillis;
+    }
+
+    @Override
+    public synchronized void call(T value) {
+        if (disconnected) {
+            return;
+        }
+
+        latest = value;
+
+        if (pendingTask == null) {
+            pendingTask = scheduler.schedule(this::emit, periodMillis);
+        }
+    }
+
+    private void emit() {
+        T value;
+
+        synchronized (this) {
+            if (disconnected) {
+                return;
+            }
+
+            value = latest;
+            latest = null;
+            pendingTask = null;
+        }
+
+        downstream.call(value);
+    }
+
+    @Override
+    public synchronized void disconnect() {
+        disconnected = true;
+        latest = null;
+
+        if (pendingTask != null) {
+            pendingTask.cancel();
+            pendingTask = null;
+        }
+    }
+
+}
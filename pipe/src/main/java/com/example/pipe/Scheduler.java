@@ -0,0 +1,34 @@
+package com.example.pipe;
+
+/**
+ * Runs tasks after a delay. Drives time-based operators such as
+ * {@link Pipe#debounce(long, java.util.concurrent.TimeUnit)}.
+ */
+public interface Scheduler {
+
+    /**
+     * @return current time of this scheduler, in milliseconds. Only the difference between two
+     * values is meaningful.
+     */
+    long now();
+
+    /**
+     * Schedules the task to be executed after the given delay.
+     *
+     * @return handle which can be used to cancel the task.
+     */
+    Task schedule(Runnable task, long delayMillis);
+
+    /**
+     * Task scheduled with {@link #schedule(Runnable, long)}.
+     */
+    interface Task {
+
+        /**
+         * Prevents the task from running. Does nothing if the task has already run.
+         */
+        void cancel();
+
+    }
+
+}
@@ -0,0 +1,56 @@
+package com.example.pipe;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Source which can be safely pushed into from several threads at once.
+ * <p>
+ * Values are put into a lock-free queue and delivered to the pipes one at a time, in the order in
+ * which they entered the queue, so values pushed by one thread are delivered in the order they
+ * were pushed and the latest value replayed to new subscribers is always the last delivered one.
+ * Producers never wait for each other: the thread which finds the source idle drains the queue,
+ * other threads just leave their values behind.
+ */
+public class SerializedSource<T> extends DrainingSource<T> {
+
+    private final MpscQueue<T> queue = new MpscQueue<>();
+
+    public SerializedSource() {
+        this(null, IMMEDIATE);
+    }
+
+    public SerializedSource(T defaultValue) {
+        this(defaultValue, IMMEDIATE);
+    }
+
+    /**
+     * @param executor executor on which values are delivered to the pipes.
+     */
+    public SerializedSource(T defaultValue, Executor executor) {
+        super(defaultValue, executor);
+    }
+
+    /**
+     * Pushes value into the source. If another thread is delivering values of this source, the
+     * value is delivered by that thread after the values which are already queued.
+     */
+    @Override
+    public void push(T value) {
+        if (value == null) {
+            throw new NullPointerException("Null values are not permitted");
+        }
+
+        queue.offer(value);
+
+        scheduleDrain();
+    }
+
+    @Override
+    void deliverPending() {
+        T value;
+        while ((value = queue.poll()) != null) {
+            deliver(value);
+        }
+    }
+
+}
@@ -1,16 +1,13 @@
 package com.example.pipe;
 
-import java.util.LinkedHashSet;
-import java.util.Set;
-
 /**
  * Entry point into the pipe. Consumes values so that they can be handled by the pipe in a reactive
  * way.
  */
 public class Source<T> {
 
-    private final Set<Action1<T>> consumers = new LinkedHashSet<>();
-    private T defaultValue;
+    private final Subscribers<Action1<T>> consumers = new Subscribers<>();
+    private volatile T defaultValue;
 
     public Source() {
         this(null);
@@ -22,32 +19,71 @@ public class Source<T> {
 
     /**
      * Pushes value into the source so that pipe will receive it.
+     * <p>
+     * If called by a consumer while another value is being pushed on the same thread, the value
+     * is delivered right after that push is delivered to all of its consumers.
      */
     public void push(T value) {
         if (value == null) {
             throw new NullPointerException("Null values are not permitted");
         }
 
+        Transaction transaction = Transaction.begin();
+        try {
+            if (transaction.beginDispatch()) {
+                RuntimeException failure = null;
+                try {
+                    dispatch(value);
+                } catch (RuntimeException e) {
+                    failure = e;
+                } finally {
+                    transaction.endDispatch(failure);
+                }
+            } else {
+                transaction.queueDispatch(() -> dispatch(value));
+            }
+        } finally {
+            transaction.end();
+        }
+    }
+
+    private void dispatch(T value) {
         defaultValue = value;
 
-        synchronized (consumers) {
-            for (Action1<T> consumer : consumers) {
-                consumer.call(value);
+        for (Subscribers.Node<Action1<T>> node : consumers.snapshot()) {
+            if (node.isActive()) {
+                node.consumer.call(value);
             }
         }
     }
 
     /**
-     * Registers new consumer which would be notified about new values.
+     * Registers new consumer which would be notified about new values, starting with the latest
+     * one.
+     *
+     * @return connection which stops notifying the consumer once disconnected.
      */
-    void registerConsumer(Action1<T> consumer) {
-        if (defaultValue != null) {
-            consumer.call(defaultValue);
+    Connection connect(Action1<T> consumer) {
+        T latest = defaultValue;
+        if (latest != null) {
+            Transaction transaction = Transaction.beginReplay();
+            try {
+                consumer.call(latest);
+            } finally {
+                transaction.endReplay();
+            }
         }
 
-        synchronized (consumers) {
-            consumers.add(consumer);
-        }
+        Subscribers.Node<Action1<T>> node = consumers.add(consumer);
+
+        return () -> consumers.remove(node);
+    }
+
+    /**
+     * @return number of currently registered consumers.
+     */
+    int consumerCount() {
+        return consumers.size();
     }
 
 }
@@ -0,0 +1,59 @@
+package com.example.pipe;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counter which spreads increments from different threads over several cells, so that threads do
+ * not contend on a single atomic value. Reading the sum is more expensive than updating it.
+ * <p>
+ * Same idea as {@code LongAdder}, which is not available on older Android versions.
+ */
+final class StripedCounter {
+
+    /**
+     * Cells are placed a cache line apart, so that updates of one cell do not invalidate others.
+     */
+    private static final int PADDING = 8;
+
+    private static final int STRIPES = stripeCount();
+
+    private final AtomicLongArray cells = new AtomicLongArray(STRIPES * PADDING);
+
+    void increment() {
+        add(1);
+    }
+
+    void add(long delta) {
+        cells.getAndAdd(cellIndex(), delta);
+    }
+
+    long sum() {
+        long sum = 0;
+
+        for (int i = 0; i < STRIPES; i++) {
+            sum += cells.get(i * PADDING);
+        }
+
+        return sum;
+    }
+
+    /**
+     * Sets the counter to zero. Increments made concurrently with the reset may survive it.
+     */
+    void reset() {
+        for (int i = 0; i < STRIPES; i++) {
+            cells.set(i * PADDING, 0);
+        }
+    }
+
+    private static int cellIndex() {
+        return (int) (Thread.currentThread().getId() & (STRIPES - 1)) * PADDING;
+    }
+
+    private static int stripeCount() {
+        int processors = Math.min(Runtime.getRuntime().availableProcessors(), 64);
+
+        return Integer.highestOneBit(processors * 2 - 1);
+    }
+
+}
@@ -0,0 +1,63 @@
+package com.example.pipe;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Connects to the upstream pipe on the executor.
+ */
+final class SubscribeOnConnector<T> implements Connector<T> {
+
+    private final Pipe<T> upstream;
+    private final Executor executor;
+
+    SubscribeOnConnector(Pipe<T> upstream, Executor executor) {
+        this.upstream = upstream;
+        this.executor = executor;
+    }
+
+    @Override
+    public Connection connect(Action1<T> consumer) {
+        DeferredConnection connection = new DeferredConnection();
+
+        executor.execute(() -> connection.connect(consumer));
+
+        return connection;
+    }
+
+    /**
+     * Subscription made on the executor, which may race with the disconnection. No lock is held
+     * while subscribing or unsubscribing, since both call into the upstream.
+     */
+    private final class DeferredConnection implements Connection {
+
+        private final AtomicReference<Pipe<T>.Subscription> subscription = new AtomicReference<>();
+        private volatile boolean disconnected;
+
+        void connect(Action1<T> consumer) {
+            if (disconnected) {
+                return;
+            }
+
+            Pipe<T>.Subscription created = upstream.subscribe(consumer);
+            subscription.set(created);
+
+            // Disconnected while subscribing, without seeing the subscription
+            if (disconnected && subscription.compareAndSet(created, null)) {
+                created.unsubscribe();
+            }
+        }
+
+        @Override
+        public void disconnect() {
+            disconnected = true;
+
+            Pipe<T>.Subscription current = subscription.getAndSet(null);
+            if (current != null) {
+                current.unsubscribe();
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,131 @@
+package com.example.pipe;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Lock-free registry of consumers shared by sources and pipes.
+ * <p>
+ * Consumers are kept in an immutable array which is replaced (copy-on-write) each time a consumer
+ * is added. Dispatching a value iterates over the current snapshot of that array, so it neither
+ * allocates nor holds any lock while consumers are being called. The registry is generic over the
+ * type of consumer, so that primitive pipes can dispatch values without boxing them.
+ * <p>
+ * Removal is O(1): the node is only marked as inactive and skipped during dispatch. Inactive nodes
+ * are purged from the array once they make up more than half of it, which keeps the amortized
+ * cost of removal constant.
+ */
+final class Subscribers<C> {
+
+    @SuppressWarnings("rawtypes")
+    private static final Node[] EMPTY = new Node[0];
+
+    @SuppressWarnings("unchecked")
+    private final AtomicReference<Node<C>[]> nodes = new AtomicReference<>((Node<C>[]) EMPTY);
+    private final AtomicInteger inactiveCount = new AtomicInteger();
+
+    /**
+     * Registers a new consumer.
+     *
+     * @return node which can later be passed to {@link #remove(Node)}.
+     */
+    Node<C> add(C consumer) {
+        Node<C> node = new Node<>(consumer);
+
+        while (true) {
+            Node<C>[] current = nodes.get();
+            Node<C>[] updated = copyOf(current, current.length + 1);
+            updated[current.length] = node;
+
+            if (nodes.compareAndSet(current, updated)) {
+                return node;
+            }
+        }
+    }
+
+    /**
+     * Removes previously registered consumer. Does nothing if consumer was already removed.
+     *
+     * @return {@code true} if consumer was removed by this call.
+     */
+    boolean remove(Node<C> node) {
+        if (!node.active.compareAndSet(true, false)) {
+            return false;
+        }
+
+        if (inactiveCount.incrementAndGet() * 2 > nodes.get().length) {
+            purgeInactive();
+        }
+
+        return true;
+    }
+
+    /**
+     * @return current consumers. Inactive ones should be skipped, see {@link Node#isActive()}.
+     */
+    Node<C>[] snapshot() {
+        return nodes.get();
+    }
+
+    /**
+     * @return number of active consumers.
+     */
+    int size() {
+        return nodes.get().length - inactiveCount.get();
+    }
+
+    private void purgeInactive() {
+        while (true) {
+            Node<C>[] current = nodes.get();
+            Node<C>[] updated = copyActive(current);
+
+            if (nodes.compareAndSet(current, updated)) {
+                inactiveCount.addAndGet(updated.length - current.length);
+                return;
+            }
+        }
+    }
+
+    private static <C> Node<C>[] copyActive(Node<C>[] source) {
+        Node<C>[] buffer = copyOf(source, source.length);
+        int activeCount = 0;
+
+        for (Node<C> node : source) {
+            if (node.active.get()) {
+                buffer[activeCount++] = node;
+            }
+        }
+
+        return copyOf(buffer, activeCount);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <C> Node<C>[] copyOf(Node<C>[] source, int length) {
+        Node<C>[] result = new Node[length];
+        System.arraycopy(source, 0, result, 0, Math.min(source.length, length));
+        return result;
+    }
+
+    /**
+     * Registered consumer.
+     */
+    static final class Node<C> {
+
+        final C consumer;
+        private final AtomicBoolean active = new AtomicBoolean(true);
+
+        private Node(C consumer) {
+            this.consumer = consumer;
+        }
+
+        /**
+         * @return {@code false} if consumer was removed and should not be called anymore.
+         */
+        boolean isActive() {
+            return active.get();
+        }
+
+    }
+
+}
@@ -0,0 +1,80 @@
+package com.example.pipe;
+
+/**
+ * Consumer which maps each value to a pipe and passes values of the most recent pipe to the
+ * downstream. Subscription to the previous pipe is cancelled as soon as a new value arrives.
+ */
+final class SwitchMapConsumer<T, R> implements Action1<T>, Connection {
+
+    private final Action1<R> downstream;
+    private final Function1<T, Pipe<R>> mapper;
+
+    private volatile Object currentInner;
+    private Pipe<R>.Subscription innerSubscription;
+    private boolean disconnected;
+
+    SwitchMapConsumer(Action1<R> downstream, Function1<T, Pipe<R>> mapper) {
+        this.downstream = downstream;
+        this.mapper = mapper;
+    }
+
+    @Override
+    public void call(T value) {
+        Pipe<R> inner = mapper.call(value);
+
+        Object token = new Object();
+        Pipe<R>.Subscription previous;
+
+        synchronized (this) {
+            if (disconnected) {
+                return;
+            }
+
+            previous = innerSubscription;
+            innerSubscription = null;
+            currentInner = token;
+        }
+
+        if (previous != null) {
+            previous.unsubscribe();
+        }
+
+        // Subscribed outside of the lock, since the inner pipe may replay its value synchronously
+        Pipe<R>.Subscription created = inner.subscribe(innerValue -> {
+            if (currentInner == token) {
+                downstream.call(innerValue);
+            }
+        });
+
+        boolean superseded;
+
+        synchronized (this) {
+            superseded = currentInner != token;
+
+            if (!superseded) {
+                innerSubscription = created;
+            }
+        }
+
+        if (superseded) {
+            created.unsubscribe();
+        }
+    }
+
+    @Override
+    public void disconnect() {
+        Pipe<R>.Subscription current;
+
+        synchronized (this) {
+            disconnected = true;
+            current = innerSubscription;
+            innerSubscription = null;
+            currentInner = null;
+        }
+
+        if (current != null) {
+            current.unsubscribe();
+        }
+    }
+
+}
@@ -3,6 +3,7 @@ package com.example.pipe;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Subscribes to pipe and allows to verify that given set of values was emitted.
@@ -22,7 +23,89 @@ public class Tester<T> {
         return tester;
     }
 
+    /**
+     * @return new tester which observes the given pipe and drives the time of the given scheduler,
+     * see {@link #advanceBy(long, TimeUnit)}.
+     */
+    public static <T> Tester<T> test(Pipe<T> pipe, VirtualTimeScheduler scheduler) {
+        final Tester<T> tester = new Tester<>(scheduler);
+
+        pipe.subscribe(tester::onNext);
+
+        return tester;
+    }
+
+    /**
+     * @return new tester which observes the given pipe.
+     */
+    public static Tester<Boolean> test(BooleanPipe pipe) {
+        final Tester<Boolean> tester = new Tester<>();
+
+        pipe.subscribe(tester::onNext);
+
+        return tester;
+    }
+
+    /**
+     * @return new tester which observes the given pipe.
+     */
+    public static Tester<Integer> test(IntPipe pipe) {
+        final Tester<Integer> tester = new Tester<>();
+
+        pipe.subscribe(tester::onNext);
+
+        return tester;
+    }
+
+    /**
+     * @return new tester which observes the given pipe.
+     */
+    public static Tester<Long> test(LongPipe pipe) {
+        final Tester<Long> tester = new Tester<>();
+
+        pipe.subscribe(tester::onNext);
+
+        return tester;
+    }
+
     private final List<T> values = new ArrayList<>();
+    private final VirtualTimeScheduler scheduler;
+
+    private Tester() {
+        this(null);
+    }
+
+    private Tester(VirtualTimeScheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Moves the time of the scheduler forward by the given amount.
+     *
+     * @return this tester, so that assertions can follow.
+     */
+    public final Tester<T> advanceBy(long time, TimeUnit unit) {
+        requireScheduler().advanceBy(time, unit);
+        return this;
+    }
+
+    /**
+     * Moves the time of the scheduler forward to the given moment.
+     *
+     * @return this tester, so that assertions can follow.
+     */
+    public final Tester<T> advanceTo(long time, TimeUnit unit) {
+        requireScheduler().advanceTo(time, unit);
+        return this;
+    }
+
+    private VirtualTimeScheduler requireScheduler() {
+        if (scheduler == null) {
+            throw new IllegalStateException("Tester was created without a scheduler");
+        }
+
+        return scheduler;
+    }
 
     /**
      * Asserts that this and only this value was emitted.
@@ -44,6 +127,15 @@ public class Tester<T> {
         }
     }
 
+    /**
+     * Asserts that exactly given number of values was emitted.
+     */
+    public final void assertValueCount(int count) {
+        if (values.size() != count) {
+            throw new AssertionError("Expected " + count + " values.\nReceived: " + values.size());
+        }
+    }
+
     /**
      * Asserts that no values were emitted.
      */
@@ -0,0 +1,122 @@
+package com.example.pipe;
+
+/**
+ * Connects to the upstream pipe and, if it does not emit its first value within the timeout,
+ * disconnects from it and emits the fallback value instead. Once the first value arrives, the timer
+ * is stopped for good, so a single-shot upstream is never followed by the fallback.
+ *
+ * @see Pipe#timeout(long, java.util.concurrent.TimeUnit, Object, Scheduler)
+ */
+final class TimeoutConnector<T> implements Connector<T> {
+
+    private final Pipe<T> upstream;
+    private final long timeoutMillis;
+    private final T fallback;
+    private final Scheduler scheduler;
+
+    TimeoutConnector(Pipe<T> upstream, long timeoutMillis, T fallback, Scheduler scheduler) {
+        this.upstream = upstream;
+        this.timeoutMillis = timeoutMillis;
+        this.fallback = fallback;
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    public Connection connect(Action1<T> consumer) {
+        TimeoutConnection connection = new TimeoutConnection(consumer);
+
+        connection.subscribe();
+
+        return connection;
+    }
+
+    private final class TimeoutConnection implements Connection {
+
+        private final Action1<T> consumer;
+
+        private Pipe<T>.Subscription subscription;
+        private Scheduler.Task timer;
+        private boolean finished;
+
+        TimeoutConnection(Action1<T> consumer) {
+            this.consumer = consumer;
+        }
+
+        void subscribe() {
+            synchronized (this) {
+                timer = scheduler.schedule(this::onTimeout, timeoutMillis);
+            }
+
+            Pipe<T>.Subscription created = upstream.subscribe(this::onValue);
+
+            synchronized (this) {
+                if (finished) {
+                    created.unsubscribe();
+                } else {
+                    subscription = created;
+                }
+            }
+        }
+
+        private void onValue(T value) {
+            synchronized (this) {
+                if (finished) {
+                    return;
+                }
+
+                if (timer != null) {
+                    timer.cancel();
+                    timer = null;
+                }
+            }
+
+            consumer.call(value);
+        }
+
+        private void onTimeout() {
+            if (finish(true)) {
+                consumer.call(fallback);
+            }
+        }
+
+        @Override
+        public void disconnect() {
+            finish(false);
+        }
+
+        /**
+         * Stops the timer and disconnects from the upstream.
+         *
+         * @param onlyBeforeFirstValue whether to do nothing if the first value has already arrived,
+         *                             which happens when the timer fires while it is being stopped.
+         * @return {@code false} if nothing was done.
+         */
+        private boolean finish(boolean onlyBeforeFirstValue) {
+            Pipe<T>.Subscription current;
+
+            synchronized (this) {
+                if (finished || (onlyBeforeFirstValue && timer == null)) {
+                    return false;
+                }
+
+                finished = true;
+
+                if (timer != null) {
+                    timer.cancel();
+                    timer = null;
+                }
+
+                current = subscription;
+                subscription = null;
+            }
+
+            if (current != null) {
+                current.unsubscribe();
+            }
+
+            return true;
+        }
+
+    }
+
+}
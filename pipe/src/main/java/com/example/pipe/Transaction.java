@@ -0,0 +1,190 @@
+package com.example.pipe;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+
+/**
+ * Groups value propagation which happens on the current thread, so that actions interested only
+ * in the final state can be deferred until the outermost transaction ends.
+ * <p>
+ * Every {@link Source#push(Object)} runs in a transaction, which makes all the updates caused by
+ * a single push visible as one.
+ * <p>
+ * Transaction also serves as a trampoline for the dispatch of values. A push made by a consumer
+ * while another push is being dispatched on the same thread is queued and dispatched once the
+ * current one is done, so that deep graphs of sources do not grow the stack.
+ */
+final class Transaction {
+
+    private static final ThreadLocal<Transaction> CURRENT = new ThreadLocal<Transaction>() {
+        @Override
+        protected Transaction initialValue() {
+            return new Transaction();
+        }
+    };
+
+    private final Queue<Runnable> deferredActions = new ArrayDeque<>();
+    private int depth;
+
+    private final Queue<Runnable> pendingDispatches = new ArrayDeque<>();
+    private boolean dispatching;
+
+    private int replayDepth;
+
+    private Transaction() {
+    }
+
+    /**
+     * Starts a transaction, or joins the one which is already in progress on the current thread.
+     * Every call must be followed by {@link #end()}.
+     */
+    static Transaction begin() {
+        Transaction transaction = CURRENT.get();
+        transaction.depth++;
+        return transaction;
+    }
+
+    /**
+     * Runs the action within a transaction.
+     */
+    static void run(Runnable action) {
+        Transaction transaction = begin();
+        try {
+            action.run();
+        } finally {
+            transaction.end();
+        }
+    }
+
+    /**
+     * Defers the action until the end of the transaction which is in progress on the current
+     * thread.
+     *
+     * @return {@code false} if there is no transaction in progress and action was not deferred.
+     */
+    static boolean defer(Runnable action) {
+        Transaction transaction = CURRENT.get();
+
+        if (transaction.depth == 0) {
+            return false;
+        }
+
+        transaction.deferredActions.add(action);
+        return true;
+    }
+
+    /**
+     * Marks the values passed to consumers on the current thread, until {@link #endReplay()}, as
+     * replays of a value emitted earlier rather than new ones.
+     */
+    static Transaction beginReplay() {
+        Transaction transaction = CURRENT.get();
+        transaction.replayDepth++;
+        return transaction;
+    }
+
+    void endReplay() {
+        replayDepth--;
+    }
+
+    /**
+     * @return {@code true} if the value being passed to a consumer on the current thread is a
+     * replay.
+     */
+    static boolean isReplaying() {
+        return CURRENT.get().replayDepth > 0;
+    }
+
+    /**
+     * Marks the start of the dispatch of a value. Every successful call must be followed by
+     * {@link #endDispatch(RuntimeException)}.
+     *
+     * @return {@code false} if another dispatch is in progress on the current thread, in which
+     * case the dispatch should be passed to {@link #queueDispatch(Runnable)} instead.
+     */
+    boolean beginDispatch() {
+        if (dispatching) {
+            return false;
+        }
+
+        dispatching = true;
+        return true;
+    }
+
+    /**
+     * Queues the dispatch until the one in progress on the current thread is done.
+     */
+    void queueDispatch(Runnable dispatch) {
+        pendingDispatches.add(dispatch);
+    }
+
+    /**
+     * Marks the end of dispatch, after running the dispatches queued during it in order.
+     * Dispatches queued while doing so are executed as well.
+     * <p>
+     * A dispatch which throws does not prevent the rest of the queue, which may push into
+     * unrelated sources, from being executed.
+     *
+     * @param failure exception thrown by the current dispatch, if any. It is rethrown at the end,
+     *                otherwise the first exception thrown by the queued dispatches is.
+     */
+    void endDispatch(RuntimeException failure) {
+        try {
+            Runnable dispatch;
+            while ((dispatch = pendingDispatches.poll()) != null) {
+                try {
+                    dispatch.run();
+                } catch (RuntimeException e) {
+                    if (failure == null) {
+                        failure = e;
+                    }
+                }
+            }
+        } finally {
+            pendingDispatches.clear();
+            dispatching = false;
+        }
+
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Ends the transaction. When the outermost transaction ends, deferred actions are executed.
+     * Actions deferred while doing so are executed as well.
+     * <p>
+     * An action which throws does not prevent the others from being executed, since each of them
+     * may be all that keeps its owner working (such as a combine waiting for its deferred
+     * emission). The first exception is rethrown once all of them are done.
+     */
+    void end() {
+        if (depth > 1) {
+            depth--;
+            return;
+        }
+
+        RuntimeException failure = null;
+
+        try {
+            Runnable action;
+            while ((action = deferredActions.poll()) != null) {
+                try {
+                    action.run();
+                } catch (RuntimeException e) {
+                    if (failure == null) {
+                        failure = e;
+                    }
+                }
+            }
+        } finally {
+            deferredActions.clear();
+            depth = 0;
+        }
+
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+}
@@ -0,0 +1,113 @@
+package com.example.pipe;
+
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Scheduler} whose time moves only when it is advanced explicitly. Tasks run on the thread
+ * which advances the time, in the order of their deadlines.
+ * <p>
+ * Lets tests of time-based code simulate hours of activity in milliseconds, without sleeping.
+ */
+public class VirtualTimeScheduler implements Scheduler {
+
+    private final PriorityQueue<ScheduledTask> tasks = new PriorityQueue<>();
+    private long now;
+    private long sequence;
+
+    @Override
+    public synchronized long now() {
+        return now;
+    }
+
+    @Override
+    public synchronized Task schedule(Runnable task, long delayMillis) {
+        ScheduledTask scheduledTask = new ScheduledTask(
+                task,
+                now + Math.max(delayMillis, 0),
+                sequence++
+        );
+
+        tasks.add(scheduledTask);
+
+        return scheduledTask;
+    }
+
+    /**
+     * Moves the time forward by the given amount, running all the tasks which become due.
+     */
+    public void advanceBy(long time, TimeUnit unit) {
+        advanceTo(now() + unit.toMillis(time), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Moves the time forward to the given moment, running all the tasks which become due. Each
+     * task observes {@link #now()} equal to its deadline, and tasks scheduled by other tasks run
+     * as well if they are due before that moment.
+     */
+    public void advanceTo(long time, TimeUnit unit) {
+        long target = unit.toMillis(time);
+
+        while (true) {
+            ScheduledTask next;
+
+            synchronized (this) {
+                next = tasks.peek();
+
+                if (next == null || next.deadline > target) {
+                    now = Math.max(now, target);
+                    return;
+                }
+
+                tasks.poll();
+                now = next.deadline;
+            }
+
+            next.runnable.run();
+        }
+    }
+
+    /**
+     * @return number of tasks which are scheduled and not cancelled.
+     */
+    public synchronized int scheduledCount() {
+        return tasks.size();
+    }
+
+    private synchronized void cancel(ScheduledTask task) {
+        tasks.remove(task);
+    }
+
+    private final class ScheduledTask implements Task, Comparable<ScheduledTask> {
+
+        final Runnable runnable;
+        final long deadline;
+        final long sequence;
+
+        ScheduledTask(Runnable runnable, long deadline, long sequence) {
+            this.runnable = runnable;
+            this.deadline = deadline;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public void cancel() {
+            VirtualTimeScheduler.this.cancel(this);
+        }
+
+        @Override
+        public int compareTo(ScheduledTask other) {
+            if (deadline != other.deadline) {
+                return deadline < other.deadline ? -1 : 1;
+            }
+
+            if (sequence != other.sequence) {
+                return sequence < other.sequence ? -1 : 1;
+            }
+
+            return 0;
+        }
+
+    }
+
+}
@@ -0,0 +1,106 @@
+package com.example.pipe;
+
+import org.junit.Test;
+
+import static com.example.pipe.Tester.test;
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+
+
+public class BooleanPipeTest {
+
+    BooleanSource source = new BooleanSource();
+
+    @Test
+    public void valuesShouldBePropagatedToSubscribers() throws Exception {
+        // Given
+        Tester<Boolean> tester = test(BooleanPipe.fromSource(source));
+
+        // When
+        source.push(true);
+        source.push(false);
+
+        // Then
+        tester.assertValues(true, false);
+    }
+
+    @Test
+    public void unsubscribedSubscriptionsShouldNotReceiveValues() throws Exception {
+        // Given
+        BooleanPipe pipe = BooleanPipe.fromSource(source);
+        Tester<Boolean> tester = test(pipe);
+
+        // When
+        pipe.subscribe(value -> {
+            throw new AssertionError("Unsubscribed consumer was called");
+        }).unsubscribe();
+
+        source.push(true);
+
+        // Then
+        tester.assertValue(true);
+    }
+
+    @Test
+    public void newSubscribersShouldReceiveTheLatestValue() throws Exception {
+        // Given
+        BooleanPipe pipe = BooleanPipe.fromSource(source);
+        source.push(true);
+
+        // When
+        Tester<Boolean> tester = test(pipe);
+
+        // Then
+        tester.assertValue(true);
+    }
+
+    @Test
+    public void constant() throws Exception {
+        // When
+        Tester<Boolean> tester = test(BooleanPipe.constant(false));
+
+        // Then
+        tester.assertValue(false);
+    }
+
+    @Test
+    public void boxed_CanBeCombined() throws Exception {
+        // Given
+        BooleanSource otherSource = new BooleanSource(true);
+
+        Pipe<Boolean> both = Pipes.combineLatest(
+                asList(
+                        BooleanPipe.fromSource(source).boxed(),
+                        BooleanPipe.fromSource(otherSource).boxed()
+                ),
+                values -> (Boolean) values[0] && (Boolean) values[1]
+        );
+
+        Tester<Boolean> tester = test(both);
+
+        // When
+        source.push(true);
+        otherSource.push(false);
+
+        // Then
+        tester.assertValues(true, false);
+    }
+
+    @Test
+    public void startStopCycles_ConsumerCountStaysFlat() throws Exception {
+        // Given
+        BooleanPipe pipe = BooleanPipe.fromSource(source);
+
+        // When
+        for (int i = 0; i < 10_000; i++) {
+            BooleanPipe.fromSource(source).subscribe(value -> {
+            }).unsubscribe();
+            pipe.boxed().subscribe(value -> {
+            }).unsubscribe();
+        }
+
+        // Then
+        assertEquals(0, source.consumerCount());
+    }
+
+}
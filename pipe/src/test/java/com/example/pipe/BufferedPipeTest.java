@@ -0,0 +1,211 @@
+package com.example.pipe;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+
+public class BufferedPipeTest {
+
+    Source<String> source = new Source<>();
+    List<Runnable> scheduledTasks = new ArrayList<>();
+    List<String> received = new ArrayList<>();
+
+    @Test
+    public void valuesAreDeliveredOnExecutor() throws Exception {
+        // Given
+        BufferedPipe<String> pipe = Pipe.fromSource(source)
+                .buffered(scheduledTasks::add, 10, OverflowPolicy.DROP_OLDEST);
+
+        pipe.subscribe(received::add);
+
+        // When
+        source.push("A");
+
+        // Then
+        assertEquals(emptyList(), received);
+
+        runScheduledTasks();
+        assertEquals(singletonList("A"), received);
+    }
+
+    @Test
+    public void burstIsDrainedBySingleTask() throws Exception {
+        // Given
+        BufferedPipe<String> pipe = Pipe.fromSource(source)
+                .buffered(scheduledTasks::add, 10, OverflowPolicy.DROP_OLDEST);
+
+        pipe.subscribe(received::add);
+
+        // When
+        source.push("A");
+        source.push("B");
+        source.push("C");
+
+        // Then
+        assertEquals(1, scheduledTasks.size());
+
+        runScheduledTasks();
+        assertEquals(asList("A", "B", "C"), received);
+    }
+
+    @Test
+    public void dropOldest() throws Exception {
+        // Given
+        BufferedPipe<String> pipe = Pipe.fromSource(source)
+                .buffered(scheduledTasks::add, 2, OverflowPolicy.DROP_OLDEST);
+
+        pipe.subscribe(received::add);
+
+        // When
+        source.push("A");
+        source.push("B");
+        source.push("C");
+        runScheduledTasks();
+
+        // Then
+        assertEquals(asList("B", "C"), received);
+        assertEquals(1, pipe.droppedCount());
+    }
+
+    @Test
+    public void keepLatest() throws Exception {
+        // Given
+        BufferedPipe<String> pipe = Pipe.fromSource(source)
+                .buffered(scheduledTasks::add, 2, OverflowPolicy.KEEP_LATEST);
+
+        pipe.subscribe(received::add);
+
+        // When
+        source.push("A");
+        source.push("B");
+        source.push("C");
+        runScheduledTasks();
+
+        // Then
+        assertEquals(singletonList("C"), received);
+        assertEquals(2, pipe.droppedCount());
+    }
+
+    @Test
+    public void error_ReportedOnSubscriberSide() throws Exception {
+        // Given
+        BufferedPipe<String> pipe = Pipe.fromSource(source)
+                .buffered(scheduledTasks::add, 2, OverflowPolicy.ERROR);
+
+        List<String> otherReceived = new ArrayList<>();
+
+        pipe.subscribe(received::add);
+        Pipe.fromSource(source).subscribe(otherReceived::add);
+
+        // When
+        source.push("A");
+        source.push("B");
+        source.push("C");
+
+        // Then
+        assertEquals(asList("A", "B", "C"), otherReceived);
+        assertEquals(1, pipe.droppedCount());
+
+        try {
+            runScheduledTasks();
+            fail("Overflow was not reported");
+        } catch (IllegalStateException expected) {
+            // Thrown by the drain task
+        }
+
+        assertEquals(asList("A", "B"), received);
+    }
+
+    @Test
+    public void block_ProducerWaitsForSlowConsumer() throws Exception {
+        // Given
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        List<String> received = Collections.synchronizedList(new ArrayList<>());
+
+        BufferedPipe<String> pipe = Pipe.fromSource(source)
+                .buffered(executor, 1, OverflowPolicy.BLOCK);
+
+        pipe.subscribe(value -> {
+            sleep();
+            received.add(value);
+        });
+
+        // When
+        source.push("A");
+        source.push("B");
+        source.push("C");
+
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.SECONDS);
+
+        // Then
+        assertEquals(asList("A", "B", "C"), received);
+        assertEquals(0, pipe.droppedCount());
+    }
+
+    @Test
+    public void slowSubscriberDoesNotAffectOthers() throws Exception {
+        // Given
+        List<Runnable> slowTasks = new ArrayList<>();
+        List<String> slowReceived = new ArrayList<>();
+
+        Pipe<String> upstream = Pipe.fromSource(source);
+        upstream.buffered(slowTasks::add, 1, OverflowPolicy.DROP_OLDEST)
+                .subscribe(slowReceived::add);
+        upstream.buffered(scheduledTasks::add, 10, OverflowPolicy.DROP_OLDEST)
+                .subscribe(received::add);
+
+        // When
+        source.push("A");
+        source.push("B");
+        runScheduledTasks();
+
+        // Then
+        assertEquals(asList("A", "B"), received);
+        assertEquals(emptyList(), slowReceived);
+    }
+
+    @Test
+    public void unsubscribe_QueuedValuesAreDropped() throws Exception {
+        // Given
+        BufferedPipe<String> pipe = Pipe.fromSource(source)
+                .buffered(scheduledTasks::add, 10, OverflowPolicy.DROP_OLDEST);
+
+        Pipe<String>.Subscription subscription = pipe.subscribe(received::add);
+        source.push("A");
+
+        // When
+        subscription.unsubscribe();
+        runScheduledTasks();
+
+        // Then
+        assertEquals(emptyList(), received);
+    }
+
+    private void runScheduledTasks() {
+        while (!scheduledTasks.isEmpty()) {
+            scheduledTasks.remove(0).run();
+        }
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(10);
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
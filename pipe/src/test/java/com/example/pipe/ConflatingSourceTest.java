@@ -0,0 +1,157 @@
+package com.example.pipe;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.example.pipe.Tester.test;
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+
+
+public class ConflatingSourceTest {
+
+    List<Runnable> tasks = new ArrayList<>();
+
+    @Test
+    public void push_Idle_DeliveredImmediately() throws Exception {
+        // Given
+        ConflatingSource<String> source = new ConflatingSource<>();
+        Tester<String> tester = test(Pipe.fromSource(source));
+
+        // When
+        source.push("A");
+        source.push("B");
+
+        // Then
+        tester.assertValues("A", "B");
+        assertEquals(0, source.conflatedCount());
+    }
+
+    @Test
+    public void push_PendingOnExecutor_OnlyLatestIsDelivered() throws Exception {
+        // Given
+        ConflatingSource<String> source = new ConflatingSource<>(null, tasks::add);
+        Tester<String> tester = test(Pipe.fromSource(source));
+
+        // When
+        source.push("A");
+        source.push("B");
+        source.push("C");
+
+        // Then
+        assertEquals(1, tasks.size());
+
+        tasks.remove(0).run();
+        tester.assertValue("C");
+        assertEquals(2, source.conflatedCount());
+    }
+
+    @Test
+    public void push_DuringDispatch_OnlyLatestIsDeliveredAfterwards() throws Exception {
+        // Given
+        ConflatingSource<String> source = new ConflatingSource<>();
+        List<String> received = new ArrayList<>();
+
+        Pipe.fromSource(source).subscribe(value -> {
+            received.add(value);
+
+            if (value.equals("A")) {
+                source.push("B");
+                source.push("C");
+            }
+        });
+
+        // When
+        source.push("A");
+
+        // Then
+        assertEquals(asList("A", "C"), received);
+        assertEquals(1, source.conflatedCount());
+    }
+
+    @Test
+    public void defaultValueIsReplayed() throws Exception {
+        // Given
+        ConflatingSource<String> source = new ConflatingSource<>("default");
+
+        // When
+        Tester<String> tester = test(Pipe.fromSource(source));
+
+        // Then
+        tester.assertValue("default");
+    }
+
+    @Test
+    public void push_ConsumerThrows_LaterValuesStillDelivered() throws Exception {
+        // Given
+        ConflatingSource<String> source = new ConflatingSource<>();
+        List<String> received = new ArrayList<>();
+
+        Pipe.fromSource(source).subscribe(value -> {
+            received.add(value);
+
+            if (value.equals("A")) {
+                throw new IllegalStateException("Consumer failed");
+            }
+        });
+
+        // When
+        try {
+            source.push("A");
+        } catch (IllegalStateException ignored) {
+            // Rethrown to the producer
+        }
+
+        source.push("B");
+        source.push("C");
+
+        // Then
+        assertEquals(asList("A", "B", "C"), received);
+    }
+
+    @Test
+    public void push_ConsumerThrows_ValuesLeftBehindDeliveredByNextDrain() throws Exception {
+        // Given
+        ConflatingSource<String> source = new ConflatingSource<>(null, tasks::add);
+        List<String> received = new ArrayList<>();
+
+        Pipe.fromSource(source).subscribe(value -> {
+            received.add(value);
+
+            if (value.equals("A")) {
+                source.push("B");
+                throw new IllegalStateException("Consumer failed");
+            }
+        });
+
+        source.push("A");
+
+        // When
+        try {
+            tasks.remove(0).run();
+        } catch (IllegalStateException ignored) {
+            // Rethrown to the executor
+        }
+
+        tasks.remove(0).run();
+
+        // Then
+        assertEquals(asList("A", "B"), received);
+        assertEquals(0, tasks.size());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void nullValuesAreNotPermitted() throws Exception {
+        // Given
+        ConflatingSource<String> source = new ConflatingSource<>();
+
+        // When
+        source.push(null);
+
+        // Then
+        // Expect exception
+    }
+
+}
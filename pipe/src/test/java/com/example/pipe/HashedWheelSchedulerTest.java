@@ -0,0 +1,67 @@
+package com.example.pipe;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+
+public class HashedWheelSchedulerTest {
+
+    HashedWheelScheduler scheduler = new HashedWheelScheduler(5, 8);
+
+    @Test
+    public void schedule_RunsTaskNotBeforeDelay() throws Exception {
+        // Given
+        CountDownLatch latch = new CountDownLatch(1);
+        AtomicLong runAt = new AtomicLong();
+        long scheduledAt = scheduler.now();
+
+        // When
+        scheduler.schedule(() -> {
+            runAt.set(scheduler.now());
+            latch.countDown();
+        }, 50);
+
+        // Then
+        assertTrue(latch.await(1, TimeUnit.SECONDS));
+        assertTrue(runAt.get() - scheduledAt >= 50);
+    }
+
+    @Test
+    public void schedule_DelayLongerThanRotation_RunsTask() throws Exception {
+        // Given
+        CountDownLatch latch = new CountDownLatch(1);
+        long scheduledAt = scheduler.now();
+
+        // When
+        scheduler.schedule(latch::countDown, 100);
+
+        // Then
+        assertTrue(latch.await(1, TimeUnit.SECONDS));
+        assertTrue(scheduler.now() - scheduledAt >= 100);
+    }
+
+    @Test
+    public void cancel_TaskDoesNotRun() throws Exception {
+        // Given
+        AtomicBoolean cancelledTaskRun = new AtomicBoolean();
+        CountDownLatch latch = new CountDownLatch(1);
+
+        Scheduler.Task task = scheduler.schedule(() -> cancelledTaskRun.set(true), 20);
+
+        // When
+        task.cancel();
+        scheduler.schedule(latch::countDown, 40);
+
+        // Then
+        assertTrue(latch.await(1, TimeUnit.SECONDS));
+        assertFalse(cancelledTaskRun.get());
+    }
+
+}
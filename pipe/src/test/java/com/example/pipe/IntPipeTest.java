@@ -0,0 +1,124 @@
+package com.example.pipe;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.example.pipe.Tester.test;
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+
+
+public class IntPipeTest {
+
+    IntSource source = new IntSource();
+
+    @Test
+    public void valuesShouldBePropagatedToSubscribers() throws Exception {
+        // Given
+        Tester<Integer> tester = test(IntPipe.fromSource(source));
+
+        // When
+        source.push(1);
+        source.push(1000);
+
+        // Then
+        tester.assertValues(1, 1000);
+    }
+
+    @Test
+    public void unsubscribedSubscriptionsShouldNotReceiveValues() throws Exception {
+        // Given
+        IntPipe pipe = IntPipe.fromSource(source);
+        Tester<Integer> tester = test(pipe);
+
+        // When
+        pipe.subscribe(value -> {
+            throw new AssertionError("Unsubscribed consumer was called");
+        }).unsubscribe();
+
+        source.push(1);
+
+        // Then
+        tester.assertValue(1);
+    }
+
+    @Test
+    public void newSubscribersShouldReceiveTheLatestValue() throws Exception {
+        // Given
+        IntPipe pipe = IntPipe.fromSource(source);
+        source.push(0);
+
+        // When
+        Tester<Integer> tester = test(pipe);
+
+        // Then
+        tester.assertValue(0);
+    }
+
+    @Test
+    public void subscribeWhileFirstSubscriberIsConnecting_LatestValueReceivedOnce() throws Exception {
+        // Given
+        CountDownLatch replaying = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger deliveries = new AtomicInteger();
+
+        IntSource source = new IntSource(5) {
+            @Override
+            void deliver(IntAction1 consumer, long bits) {
+                if (deliveries.getAndIncrement() == 0) {
+                    replaying.countDown();
+                    await(release);
+                }
+
+                super.deliver(consumer, bits);
+            }
+        };
+        IntPipe pipe = IntPipe.fromSource(source);
+
+        Thread first = new Thread(() -> pipe.subscribe(value -> {
+        }));
+        first.start();
+        await(replaying);
+
+        // When
+        List<Integer> received = Collections.synchronizedList(new ArrayList<>());
+        pipe.subscribe(received::add);
+
+        release.countDown();
+        first.join(1000);
+
+        // Then
+        assertEquals(asList(5), received);
+    }
+
+    @Test
+    public void boxed() throws Exception {
+        // Given
+        Tester<Integer> tester = test(
+                IntPipe.fromSource(source)
+                        .boxed()
+                        .map(value -> value * 2)
+        );
+
+        // When
+        source.push(21);
+
+        // Then
+        tester.assertValue(42);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
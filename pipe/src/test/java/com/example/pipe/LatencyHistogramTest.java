@@ -0,0 +1,59 @@
+package com.example.pipe;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+
+public class LatencyHistogramTest {
+
+    LatencyHistogram histogram = new LatencyHistogram();
+
+    @Test
+    public void valueAt_Empty_ReturnsZero() throws Exception {
+        // When
+        long median = histogram.valueAt(0.5);
+
+        // Then
+        assertEquals(0, median);
+    }
+
+    @Test
+    public void valueAt_ReturnsValueWithinQuarterOfActual() throws Exception {
+        // Given
+        for (long value = 1; value <= 1000; value++) {
+            histogram.record(value * 1000);
+        }
+
+        // When
+        long median = histogram.valueAt(0.5);
+        long p99 = histogram.valueAt(0.99);
+
+        // Then
+        assertWithinQuarter(500_000, median);
+        assertWithinQuarter(990_000, p99);
+    }
+
+    @Test
+    public void valueAt_SmallValuesAreExact() throws Exception {
+        // Given
+        histogram.record(1);
+        histogram.record(2);
+        histogram.record(3);
+
+        // When
+        long median = histogram.valueAt(0.5);
+
+        // Then
+        assertEquals(2, median);
+    }
+
+    private static void assertWithinQuarter(long expected, long actual) {
+        assertTrue(
+                "Expected about " + expected + ", got " + actual,
+                actual >= expected && actual <= expected * 5 / 4
+        );
+    }
+
+}
@@ -0,0 +1,71 @@
+package com.example.pipe;
+
+import org.junit.Test;
+
+import static com.example.pipe.Tester.test;
+
+
+public class LongPipeTest {
+
+    LongSource source = new LongSource();
+
+    @Test
+    public void valuesShouldBePropagatedToSubscribers() throws Exception {
+        // Given
+        Tester<Long> tester = test(LongPipe.fromSource(source));
+
+        // When
+        source.push(1L);
+        source.push(1000L);
+
+        // Then
+        tester.assertValues(1L, 1000L);
+    }
+
+    @Test
+    public void unsubscribedSubscriptionsShouldNotReceiveValues() throws Exception {
+        // Given
+        LongPipe pipe = LongPipe.fromSource(source);
+        Tester<Long> tester = test(pipe);
+
+        // When
+        pipe.subscribe(value -> {
+            throw new AssertionError("Unsubscribed consumer was called");
+        }).unsubscribe();
+
+        source.push(1L);
+
+        // Then
+        tester.assertValue(1L);
+    }
+
+    @Test
+    public void newSubscribersShouldReceiveTheLatestValue() throws Exception {
+        // Given
+        LongPipe pipe = LongPipe.fromSource(source);
+        source.push(0L);
+
+        // When
+        Tester<Long> tester = test(pipe);
+
+        // Then
+        tester.assertValue(0L);
+    }
+
+    @Test
+    public void boxed() throws Exception {
+        // Given
+        Tester<Long> tester = test(
+                LongPipe.fromSource(source)
+                        .boxed()
+                        .map(value -> value * 2)
+        );
+
+        // When
+        source.push(21L);
+
+        // Then
+        tester.assertValue(42L);
+    }
+
+}
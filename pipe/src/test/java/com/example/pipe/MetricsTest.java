@@ -0,0 +1,132 @@
+package com.example.pipe;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+
+public class MetricsTest {
+
+    Source<String> source = new Source<>();
+
+    @After
+    public void tearDown() throws Exception {
+        Metrics.reset();
+    }
+
+    @Test
+    public void snapshot_CountsEmissionsAndSubscribers() throws Exception {
+        // Given
+        Pipe<String> pipe = Pipe.fromSource(source).instrumented("strings");
+
+        pipe.subscribe(value -> {
+        });
+        pipe.subscribe(value -> {
+        }).unsubscribe();
+
+        // When
+        source.push("a");
+        source.push("b");
+
+        // Then
+        MetricsSnapshot snapshot = Metrics.snapshot("strings");
+
+        assertEquals("strings", snapshot.name);
+        assertEquals(2, snapshot.emissionCount);
+        assertEquals(1, snapshot.subscriberCount);
+        assertTrue(snapshot.emissionsPerSecond > 0);
+    }
+
+    @Test
+    public void snapshot_SameName_SharesMetrics() throws Exception {
+        // Given
+        Pipe.fromSource(source).instrumented("shared").subscribe(value -> {
+        });
+        Pipe.fromSource(source).instrumented("shared").subscribe(value -> {
+        });
+
+        // When
+        source.push("a");
+
+        // Then
+        int sharedCount = 0;
+        for (MetricsSnapshot snapshot : Metrics.snapshot()) {
+            if (snapshot.name.equals("shared")) {
+                sharedCount++;
+            }
+        }
+
+        MetricsSnapshot snapshot = Metrics.snapshot("shared");
+
+        assertEquals(1, sharedCount);
+        assertEquals(2, snapshot.emissionCount);
+        assertEquals(2, snapshot.subscriberCount);
+    }
+
+    @Test
+    public void reset_InstrumentedPipe_KeepsCountingFromZero() throws Exception {
+        // Given
+        Pipe<String> pipe = Pipe.fromSource(source).instrumented("reset");
+        pipe.subscribe(value -> {
+        });
+        source.push("a");
+
+        // When
+        Metrics.reset();
+        source.push("b");
+
+        // Then
+        MetricsSnapshot snapshot = Metrics.snapshot("reset");
+
+        assertEquals(1, snapshot.emissionCount);
+        assertEquals(1, snapshot.subscriberCount);
+    }
+
+    @Test
+    public void snapshot_SlowConsumer_IsCounted() throws Exception {
+        // Given
+        Metrics.setSlowConsumerThreshold(1, TimeUnit.MILLISECONDS);
+
+        Pipe<String> pipe = Pipe.fromSource(source).instrumented("slow");
+        pipe.subscribe(value -> sleep(5));
+        pipe.subscribe(value -> {
+        });
+
+        // When
+        source.push("a");
+
+        // Then
+        MetricsSnapshot snapshot = Metrics.snapshot("slow");
+
+        assertEquals(1, snapshot.slowConsumerEvents);
+        assertTrue(snapshot.p99DispatchNanos >= TimeUnit.MILLISECONDS.toNanos(5));
+    }
+
+    @Test
+    public void snapshot_SortedByName() throws Exception {
+        // Given
+        Pipe.fromSource(source).instrumented("b");
+        Pipe.fromSource(source).instrumented("a");
+
+        // When
+        List<MetricsSnapshot> snapshots = Metrics.snapshot();
+
+        // Then
+        assertEquals("a", snapshots.get(0).name);
+        assertEquals("b", snapshots.get(1).name);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
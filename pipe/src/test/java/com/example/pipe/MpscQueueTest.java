@@ -0,0 +1,62 @@
+package com.example.pipe;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+
+public class MpscQueueTest {
+
+    MpscQueue<String> queue = new MpscQueue<>();
+
+    @Test
+    public void poll_ReturnsValuesInOrder() throws Exception {
+        // Given
+        queue.offer("a");
+        queue.offer("b");
+
+        // When
+        List<String> polled = asList(queue.poll(), queue.poll());
+
+        // Then
+        assertEquals(asList("a", "b"), polled);
+        assertNull(queue.poll());
+    }
+
+    @Test
+    public void offer_ManyProducers_ValuesOfEachProducerStayInOrder() throws Exception {
+        int producers = 4;
+        int valuesPerProducer = 1000;
+
+        for (int round = 0; round < 100; round++) {
+            // Given
+            MpscQueue<int[]> queue = new MpscQueue<>();
+
+            // When
+            Race.run(producers, producer -> {
+                for (int i = 0; i < valuesPerProducer; i++) {
+                    queue.offer(new int[]{producer, i});
+                }
+            });
+
+            // Then
+            int[] expectedNext = new int[producers];
+            int[] value;
+            List<int[]> polled = new ArrayList<>();
+
+            while ((value = queue.poll()) != null) {
+                assertEquals(expectedNext[value[0]], value[1]);
+                expectedNext[value[0]]++;
+                polled.add(value);
+            }
+
+            assertEquals(producers * valuesPerProducer, polled.size());
+        }
+    }
+
+}
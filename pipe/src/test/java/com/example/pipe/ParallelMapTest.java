@@ -0,0 +1,226 @@
+package com.example.pipe;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.example.pipe.Tester.test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+
+public class ParallelMapTest {
+
+    Source<Integer> source = new Source<>();
+    List<Runnable> scheduledTasks = new ArrayList<>();
+
+    @Test
+    public void parallelMap_ResultsEmittedInOrderOfValues() throws Exception {
+        // Given
+        Tester<String> tester = test(
+                Pipe.fromSource(source).parallelMap(scheduledTasks::add, 3, String::valueOf)
+        );
+
+        source.push(1);
+        source.push(2);
+        source.push(3);
+
+        // When
+        scheduledTasks.get(2).run();
+        scheduledTasks.get(1).run();
+
+        // Then
+        tester.assertEmpty();
+
+        scheduledTasks.get(0).run();
+        tester.assertValues("1", "2", "3");
+    }
+
+    @Test
+    public void parallelMap_AtMostMaxConcurrencyValuesInFlight() throws Exception {
+        // Given
+        Tester<String> tester = test(
+                Pipe.fromSource(source).parallelMap(scheduledTasks::add, 2, String::valueOf)
+        );
+
+        // When
+        source.push(1);
+        source.push(2);
+        source.push(3);
+
+        // Then
+        assertEquals(2, scheduledTasks.size());
+
+        scheduledTasks.get(0).run();
+        assertEquals(3, scheduledTasks.size());
+
+        scheduledTasks.get(2).run();
+        scheduledTasks.get(1).run();
+        tester.assertValues("1", "2", "3");
+    }
+
+    @Test
+    public void parallelMap_MapperFails_FollowingResultsStillEmitted() throws Exception {
+        // Given
+        Tester<Integer> tester = test(
+                Pipe.fromSource(source).parallelMap(scheduledTasks::add, 2, value -> {
+                    if (value == 2) {
+                        throw new IllegalStateException("Failed to map " + value);
+                    } else if (value == 4) {
+                        return null;
+                    }
+
+                    return value * 10;
+                })
+        );
+
+        // When
+        for (int i = 1; i <= 6; i++) {
+            source.push(i);
+        }
+
+        for (int i = 0; i < scheduledTasks.size(); i++) {
+            try {
+                scheduledTasks.get(i).run();
+            } catch (RuntimeException ignored) {
+                // Rethrown to the executor
+            }
+        }
+
+        // Then
+        tester.assertValues(10, 30, 50, 60);
+    }
+
+    @Test
+    public void parallelMap_WaitingQueueFull_OldestWaitingValueDropped() throws Exception {
+        // Given
+        Tester<String> tester = test(
+                Pipe.fromSource(source).parallelMap(scheduledTasks::add, 1, 2, String::valueOf)
+        );
+
+        // When
+        for (int i = 1; i <= 4; i++) {
+            source.push(i);
+        }
+
+        for (int i = 0; i < scheduledTasks.size(); i++) {
+            scheduledTasks.get(i).run();
+        }
+
+        // Then
+        tester.assertValues("1", "3", "4");
+    }
+
+    @Test
+    public void parallelMap_ExecutorRejects_ValueSkippedAndFollowingValuesMapped() throws Exception {
+        // Given
+        AtomicInteger submissions = new AtomicInteger();
+
+        Tester<String> tester = test(
+                Pipe.fromSource(source).parallelMap(task -> {
+                    if (submissions.incrementAndGet() == 1) {
+                        throw new RejectedExecutionException("Executor is busy");
+                    }
+
+                    task.run();
+                }, 1, String::valueOf)
+        );
+
+        // When
+        try {
+            source.push(1);
+        } catch (RejectedExecutionException ignored) {
+            // Rethrown to the producer
+        }
+
+        source.push(2);
+        source.push(3);
+
+        // Then
+        tester.assertValues("2", "3");
+    }
+
+    @Test
+    public void parallelMap_Unsubscribe_PendingResultsDropped() throws Exception {
+        // Given
+        List<String> received = new ArrayList<>();
+
+        Pipe<String>.Subscription subscription = Pipe.fromSource(source)
+                .parallelMap(scheduledTasks::add, 2, String::valueOf)
+                .subscribe(received::add);
+
+        source.push(1);
+
+        // When
+        subscription.unsubscribe();
+        scheduledTasks.get(0).run();
+
+        // Then
+        assertEquals(Collections.<String>emptyList(), received);
+    }
+
+    @Test
+    public void parallelMap_ThreadPool_OrderKeptAndMapperRunsConcurrently() throws Exception {
+        // Given
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(100);
+        List<Integer> received = Collections.synchronizedList(new ArrayList<>());
+
+        Pipe.fromSource(source)
+                .parallelMap(executor, 4, value -> {
+                    int current = running.incrementAndGet();
+                    maxRunning.accumulateAndGet(current, Math::max);
+                    sleep(1);
+                    running.decrementAndGet();
+                    return value;
+                })
+                .subscribe(value -> {
+                    received.add(value);
+                    done.countDown();
+                });
+
+        List<Integer> expected = new ArrayList<>();
+
+        // When
+        for (int i = 0; i < 100; i++) {
+            source.push(i);
+            expected.add(i);
+        }
+
+        // Then
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        executor.shutdown();
+
+        assertEquals(expected, received);
+        assertTrue(maxRunning.get() > 1 && maxRunning.get() <= 4);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parallelMap_NonPositiveConcurrency_Throws() throws Exception {
+        Pipe.fromSource(source).parallelMap(Runnable::run, 0, String::valueOf);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parallelMap_NonPositiveCapacity_Throws() throws Exception {
+        Pipe.fromSource(source).parallelMap(Runnable::run, 1, 0, String::valueOf);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
@@ -2,8 +2,14 @@ package com.example.pipe;
 
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
+import static com.example.pipe.Tester.test;
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 
@@ -71,4 +77,625 @@ public class PipeTest {
         );
     }
 
-}
\ No newline at end of file
+    @Test
+    public void map_TransformsValues() throws Exception {
+        // Given
+        Tester<Integer> tester = test(
+                Pipe.fromSource(source).map(String::length)
+        );
+
+        // When
+        source.push("a");
+        source.push("abc");
+
+        // Then
+        tester.assertValues(1, 3);
+    }
+
+    @Test
+    public void filter_SkipsNotMatchingValues() throws Exception {
+        // Given
+        Tester<String> tester = test(
+                Pipe.fromSource(source).filter(value -> value.startsWith("a"))
+        );
+
+        // When
+        source.push("a");
+        source.push("b");
+        source.push("ab");
+
+        // Then
+        tester.assertValues("a", "ab");
+    }
+
+    @Test
+    public void distinctUntilChanged_SkipsRepeatedValues() throws Exception {
+        // Given
+        Tester<String> tester = test(
+                Pipe.fromSource(source).distinctUntilChanged()
+        );
+
+        // When
+        source.push("a");
+        source.push("a");
+        source.push("b");
+        source.push("a");
+
+        // Then
+        tester.assertValues("a", "b", "a");
+    }
+
+    @Test
+    public void scan_AccumulatesValues() throws Exception {
+        // Given
+        Tester<Integer> tester = test(
+                Pipe.fromSource(source).scan(0, (sum, value) -> sum + value.length())
+        );
+
+        // When
+        source.push("a");
+        source.push("bc");
+        source.push("def");
+
+        // Then
+        tester.assertValues(1, 3, 6);
+    }
+
+    @Test
+    public void take_EmitsOnlyFirstValues() throws Exception {
+        // Given
+        Tester<String> tester = test(
+                Pipe.fromSource(source).take(2)
+        );
+
+        // When
+        source.push("a");
+        source.push("b");
+        source.push("c");
+
+        // Then
+        tester.assertValues("a", "b");
+    }
+
+    @Test
+    public void operators_ChainIsSubscribedToUpstreamOnce() throws Exception {
+        // Given
+        Pipe<String> upstream = Pipe.fromSource(source);
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        upstream.subscribe(value -> upstreamCalls.incrementAndGet());
+
+        Pipe<Integer> chain = upstream
+                .map(String::length)
+                .filter(length -> length > 1)
+                .map(length -> length * 10)
+                .distinctUntilChanged()
+                .scan(0, (sum, value) -> sum + value);
+
+        Tester<Integer> tester = test(chain);
+
+        // When
+        source.push("a");
+        source.push("ab");
+        source.push("cd");
+        source.push("abc");
+
+        // Then
+        tester.assertValues(20, 50);
+        assertEquals(4, upstreamCalls.get());
+    }
+
+    @Test
+    public void operators_ReceiveLatestUpstreamValueOnSubscription() throws Exception {
+        // Given
+        source.push("abc");
+
+        // When
+        Tester<Integer> tester = test(
+                Pipe.fromSource(source).map(String::length)
+        );
+
+        // Then
+        tester.assertValue(3);
+    }
+
+    @Test
+    public void operators_NotConnectedWithoutSubscribers() throws Exception {
+        // Given
+        AtomicInteger mapperCalls = new AtomicInteger();
+
+        Pipe<Integer> pipe = Pipe.fromSource(source)
+                .map(value -> mapperCalls.incrementAndGet());
+
+        // When
+        source.push("a");
+        pipe.subscribe(value -> {
+        }).unsubscribe();
+        source.push("b");
+
+        // Then
+        assertEquals(1, mapperCalls.get());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void map_NullResultIsNotPermitted() throws Exception {
+        // Given
+        test(Pipe.fromSource(source).map(value -> null));
+
+        // When
+        source.push("a");
+
+        // Then
+        // Expect exception
+    }
+
+    @Test
+    public void observeOn_BurstIsDeliveredBySingleTask() throws Exception {
+        // Given
+        List<Runnable> tasks = new ArrayList<>();
+        List<String> received = new ArrayList<>();
+
+        Pipe.fromSource(source)
+                .observeOn(tasks::add)
+                .subscribe(received::add);
+
+        // When
+        source.push("a");
+        source.push("b");
+        source.push("c");
+
+        // Then
+        assertEquals(emptyList(), received);
+        assertEquals(1, tasks.size());
+
+        tasks.remove(0).run();
+        assertEquals(asList("a", "b", "c"), received);
+    }
+
+    @Test
+    public void observeOn_NewTaskAfterQueueIsDrained() throws Exception {
+        // Given
+        List<Runnable> tasks = new ArrayList<>();
+        List<String> received = new ArrayList<>();
+
+        Pipe.fromSource(source)
+                .observeOn(tasks::add)
+                .subscribe(received::add);
+
+        source.push("a");
+        tasks.remove(0).run();
+
+        // When
+        source.push("b");
+
+        // Then
+        assertEquals(1, tasks.size());
+
+        tasks.remove(0).run();
+        assertEquals(asList("a", "b"), received);
+    }
+
+    @Test
+    public void observeOn_Unsubscribe_PendingValuesAreDropped() throws Exception {
+        // Given
+        List<Runnable> tasks = new ArrayList<>();
+        List<String> received = new ArrayList<>();
+
+        Pipe<String>.Subscription subscription = Pipe.fromSource(source)
+                .observeOn(tasks::add)
+                .subscribe(received::add);
+
+        source.push("a");
+
+        // When
+        subscription.unsubscribe();
+        tasks.remove(0).run();
+
+        // Then
+        assertEquals(emptyList(), received);
+    }
+
+    @Test
+    public void subscribeOn_SubscribesOnExecutor() throws Exception {
+        // Given
+        List<Runnable> tasks = new ArrayList<>();
+        List<String> received = new ArrayList<>();
+        source.push("a");
+
+        Pipe<String> pipe = Pipe.fromSource(source)
+                .subscribeOn(tasks::add);
+
+        // When
+        pipe.subscribe(received::add);
+
+        // Then
+        assertEquals(emptyList(), received);
+
+        tasks.remove(0).run();
+        source.push("b");
+        assertEquals(asList("a", "b"), received);
+    }
+
+    @Test
+    public void subscribeOn_UnsubscribedBeforeExecution_NeverSubscribes() throws Exception {
+        // Given
+        List<Runnable> tasks = new ArrayList<>();
+        List<String> received = new ArrayList<>();
+        source.push("a");
+
+        Pipe<String> pipe = Pipe.fromSource(source)
+                .subscribeOn(tasks::add);
+
+        // When
+        pipe.subscribe(received::add).unsubscribe();
+        tasks.remove(0).run();
+
+        // Then
+        assertEquals(emptyList(), received);
+    }
+
+    @Test
+    public void subscribeOn_UnsubscribedWhileSubscribing_NoLockHeldAndDisconnected() throws Exception {
+        // Given
+        List<Runnable> tasks = new ArrayList<>();
+        List<Boolean> unsubscribedFromOtherThread = new ArrayList<>();
+        AtomicInteger disconnects = new AtomicInteger();
+        AtomicReference<Pipe<String>.Subscription> subscription = new AtomicReference<>();
+
+        Pipe<String> upstream = new Pipe<>(consumer -> {
+            Thread thread = new Thread(() -> subscription.get().unsubscribe());
+            thread.start();
+
+            try {
+                thread.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            unsubscribedFromOtherThread.add(!thread.isAlive());
+            return disconnects::incrementAndGet;
+        });
+
+        subscription.set(upstream.subscribeOn(tasks::add).subscribe(value -> {
+        }));
+
+        // When
+        tasks.remove(0).run();
+
+        // Then
+        assertEquals(asList(true), unsubscribedFromOtherThread);
+        assertEquals(1, disconnects.get());
+    }
+
+    @Test
+    public void subscribe_Replay_NoLockHeldWhileCallingConsumer() throws Exception {
+        // Given
+        Pipe<String> pipe = Pipe.fromSource(source);
+        pipe.subscribe(value -> {
+        });
+        source.push("a");
+
+        List<Boolean> subscribedFromOtherThread = new ArrayList<>();
+
+        // When
+        pipe.subscribe(value -> {
+            Thread thread = new Thread(() -> pipe.subscribe(other -> {
+            }));
+            thread.start();
+
+            try {
+                thread.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            subscribedFromOtherThread.add(!thread.isAlive());
+        });
+
+        // Then
+        assertEquals(asList(true), subscribedFromOtherThread);
+    }
+
+    @Test
+    public void unsubscribe_Disconnect_NoLockHeldWhileDisconnecting() throws Exception {
+        // Given
+        List<Boolean> subscribedFromOtherThread = new ArrayList<>();
+        AtomicReference<Pipe<String>> pipeReference = new AtomicReference<>();
+
+        Pipe<String> pipe = new Pipe<>(consumer -> () -> {
+            Thread thread = new Thread(() -> pipeReference.get().subscribe(other -> {
+            }));
+            thread.start();
+
+            try {
+                thread.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            subscribedFromOtherThread.add(!thread.isAlive());
+        });
+        pipeReference.set(pipe);
+
+        Pipe<String>.Subscription subscription = pipe.subscribe(value -> {
+        });
+
+        // When
+        subscription.unsubscribe();
+
+        // Then
+        assertEquals(asList(true), subscribedFromOtherThread);
+    }
+
+    @Test
+    public void unsubscribe_ValueDeliveredAfterDisconnect_NotReplayed() throws Exception {
+        // Given
+        AtomicReference<Action1<String>> connected = new AtomicReference<>();
+        Pipe<String> pipe = new Pipe<>(consumer -> {
+            connected.compareAndSet(null, consumer);
+            return () -> {
+            };
+        });
+
+        pipe.subscribe(value -> {
+        }).unsubscribe();
+
+        // When
+        connected.get().call("late");
+
+        // Then
+        test(pipe).assertEmpty();
+    }
+
+    @Test
+    public void switchMap_EmitsValuesOfLatestInnerPipe() throws Exception {
+        // Given
+        Source<String> first = new Source<>();
+        Source<String> second = new Source<>();
+
+        Tester<String> tester = test(
+                Pipe.fromSource(source).switchMap(value -> Pipe.fromSource(
+                        value.equals("first") ? first : second
+                ))
+        );
+
+        // When
+        source.push("first");
+        first.push("a");
+        source.push("second");
+        first.push("b");
+        second.push("c");
+
+        // Then
+        tester.assertValues("a", "c");
+    }
+
+    @Test
+    public void switchMap_PreviousInnerPipeIsCancelled() throws Exception {
+        // Given
+        List<String> cancelled = new ArrayList<>();
+
+        test(Pipe.fromSource(source).switchMap(value -> Pipe.<String>empty()
+                .doOnCancel(() -> cancelled.add(value))
+        ));
+
+        // When
+        source.push("a");
+        source.push("b");
+
+        // Then
+        assertEquals(asList("a"), cancelled);
+    }
+
+    @Test
+    public void switchMap_Unsubscribe_InnerPipeIsCancelled() throws Exception {
+        // Given
+        AtomicInteger cancelCount = new AtomicInteger();
+
+        Pipe<String> pipe = Pipe.fromSource(source).switchMap(value -> Pipe.<String>empty()
+                .doOnCancel(cancelCount::incrementAndGet)
+        );
+
+        Pipe<String>.Subscription subscription = pipe.subscribe(value -> {
+        });
+        source.push("a");
+
+        // When
+        subscription.unsubscribe();
+
+        // Then
+        assertEquals(1, cancelCount.get());
+    }
+
+    @Test
+    public void switchMap_InnerPipeReplay_NoLockHeldWhileDelivering() throws Exception {
+        // Given
+        AtomicReference<Pipe<String>.Subscription> subscription = new AtomicReference<>();
+        List<Boolean> unsubscribedFromOtherThread = new ArrayList<>();
+
+        subscription.set(Pipe.fromSource(source)
+                .switchMap(Pipe::constant)
+                .subscribe(value -> {
+                    Thread thread = new Thread(() -> subscription.get().unsubscribe());
+                    thread.start();
+
+                    try {
+                        thread.join(1000);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+
+                    unsubscribedFromOtherThread.add(!thread.isAlive());
+                }));
+
+        // When
+        source.push("a");
+
+        // Then
+        assertEquals(asList(true), unsubscribedFromOtherThread);
+    }
+
+    @Test
+    public void doOnCancel_NotCalledWhileSubscribersRemain() throws Exception {
+        // Given
+        AtomicInteger cancelCount = new AtomicInteger();
+
+        Pipe<String> pipe = Pipe.fromSource(source)
+                .doOnCancel(cancelCount::incrementAndGet);
+
+        Pipe<String>.Subscription first = pipe.subscribe(value -> {
+        });
+        Pipe<String>.Subscription second = pipe.subscribe(value -> {
+        });
+
+        // When
+        first.unsubscribe();
+
+        // Then
+        assertEquals(0, cancelCount.get());
+
+        second.unsubscribe();
+        assertEquals(1, cancelCount.get());
+    }
+
+    @Test
+    public void fromSource_NotConnectedWithoutSubscribers() throws Exception {
+        // When
+        Pipe.fromSource(source);
+
+        // Then
+        assertEquals(0, source.consumerCount());
+    }
+
+    @Test
+    public void fromSource_StartStopCycles_ConsumerCountStaysFlat() throws Exception {
+        // Given
+        AtomicInteger longLivedCalls = new AtomicInteger();
+        Pipe.fromSource(source).subscribe(value -> longLivedCalls.incrementAndGet());
+
+        // When
+        for (int i = 0; i < 10_000; i++) {
+            Pipe<String>.Subscription subscription = Pipe.fromSource(source)
+                    .map(String::toUpperCase)
+                    .subscribe(value -> {
+                    });
+            source.push("value " + i);
+            subscription.unsubscribe();
+        }
+
+        // Then
+        assertEquals(1, source.consumerCount());
+        assertEquals(10_000, longLivedCalls.get());
+    }
+
+    @Test
+    public void fromSource_Resubscribe_ReceivesLatestSourceValue() throws Exception {
+        // Given
+        Pipe<String> pipe = Pipe.fromSource(source);
+        pipe.subscribe(value -> {
+        }).unsubscribe();
+
+        source.push("a");
+
+        // When
+        Tester<String> tester = test(pipe);
+
+        // Then
+        tester.assertValue("a");
+    }
+
+    @Test
+    public void defer_NoSubscribers_ProducerNotStarted() throws Exception {
+        // Given
+        AtomicInteger startCount = new AtomicInteger();
+
+        // When
+        Pipe.<String>defer(emitter -> {
+            startCount.incrementAndGet();
+            return () -> {
+            };
+        });
+
+        // Then
+        assertEquals(0, startCount.get());
+    }
+
+    @Test
+    public void defer_Subscribe_ReceivesProducedValues() throws Exception {
+        // Given
+        Pipe<String> pipe = Pipe.defer(emitter -> {
+            emitter.call("a");
+            return () -> {
+            };
+        });
+
+        // When
+        Tester<String> first = test(pipe);
+        Tester<String> second = test(pipe);
+
+        // Then
+        first.assertValue("a");
+        second.assertValue("a");
+    }
+
+    @Test
+    public void defer_LastUnsubscribe_CancelsProducer() throws Exception {
+        // Given
+        AtomicInteger cancelCount = new AtomicInteger();
+        List<Action1<String>> emitters = new ArrayList<>();
+        List<String> received = new ArrayList<>();
+
+        Pipe<String>.Subscription subscription = Pipe.<String>defer(emitter -> {
+            emitters.add(emitter);
+            return cancelCount::incrementAndGet;
+        }).subscribe(received::add);
+
+        // When
+        subscription.unsubscribe();
+        emitters.get(0).call("late");
+
+        // Then
+        assertEquals(1, cancelCount.get());
+        assertEquals(emptyList(), received);
+    }
+
+    @Test
+    public void defer_Resubscribe_ProducerStartsAgain() throws Exception {
+        // Given
+        AtomicInteger startCount = new AtomicInteger();
+
+        Pipe<Integer> pipe = Pipe.defer(emitter -> {
+            emitter.call(startCount.incrementAndGet());
+            return () -> {
+            };
+        });
+
+        pipe.subscribe(value -> {
+        }).unsubscribe();
+
+        // When
+        Tester<Integer> tester = test(pipe);
+
+        // Then
+        tester.assertValue(2);
+    }
+
+    @Test
+    public void bufferCount_EmitsFullBatches() throws Exception {
+        // Given
+        Tester<List<String>> tester = test(Pipe.fromSource(source).bufferCount(2));
+
+        // When
+        source.push("a");
+        source.push("b");
+        source.push("c");
+        source.push("d");
+        source.push("e");
+
+        // Then
+        tester.assertValues(
+                asList("a", "b"),
+                asList("c", "d")
+        );
+    }
+
+}
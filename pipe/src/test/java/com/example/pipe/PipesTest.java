@@ -2,7 +2,11 @@ package com.example.pipe;
 
 import org.junit.Test;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static com.example.pipe.Tester.test;
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
 
 
 public class PipesTest {
@@ -82,5 +86,308 @@ public class PipesTest {
         );
     }
 
+    @Test
+    public void combineLatest_CombinesAnyNumberOfPipes() throws Exception {
+        // Given
+        Source<Integer> sourceD = new Source<>();
+
+        Pipe<Integer> combined = Pipes.combineLatest(
+                asList(
+                        Pipe.fromSource(sourceA),
+                        Pipe.fromSource(sourceB),
+                        Pipe.fromSource(sourceC),
+                        Pipe.fromSource(sourceD)
+                ),
+                values -> (Integer) values[0] + (Integer) values[1] + (Integer) values[2] + (Integer) values[3]
+        );
+
+        Tester<Integer> tester = test(combined);
+
+        // When
+        sourceA.push(1);
+        sourceB.push(2);
+        sourceC.push(3);
+        sourceD.push(4);
+        sourceA.push(0);
+
+        // Then
+        tester.assertValues(10, 9);
+    }
+
+    @Test
+    public void combineLatest_MapperModifiesValues_LatestValuesNotAffected() throws Exception {
+        // Given
+        Pipe<Integer> combined = Pipes.combineLatest(
+                asList(
+                        Pipe.fromSource(sourceA),
+                        Pipe.fromSource(sourceB)
+                ),
+                values -> {
+                    int sum = (Integer) values[0] + (Integer) values[1];
+                    values[0] = 0;
+                    return sum;
+                }
+        );
+
+        Tester<Integer> tester = test(combined);
+
+        // When
+        sourceA.push(1);
+        sourceB.push(2);
+        sourceB.push(3);
+
+        // Then
+        tester.assertValues(3, 4);
+    }
+
+    @Test
+    public void combineLatest_SharedUpstream_EmitsIntermediateValue() throws Exception {
+        // Given
+        Pipe<Integer> upstream = Pipe.fromSource(sourceA);
+
+        Pipe<String> combined = Pipes.combineLatest(
+                asList(
+                        upstream.map(value -> value * 10),
+                        upstream.map(value -> value * 100)
+                ),
+                values -> values[0] + "," + values[1]
+        );
+
+        Tester<String> tester = test(combined);
+
+        // When
+        sourceA.push(1);
+        sourceA.push(2);
+
+        // Then
+        tester.assertValues("10,100", "20,100", "20,200");
+    }
+
+    @Test
+    public void combineLatestGlitchFree_SharedUpstream_EmitsOncePerPush() throws Exception {
+        // Given
+        Pipe<Integer> upstream = Pipe.fromSource(sourceA);
+
+        Pipe<String> combined = Pipes.combineLatestGlitchFree(
+                asList(
+                        upstream.map(value -> value * 10),
+                        upstream.map(value -> value * 100)
+                ),
+                values -> values[0] + "," + values[1]
+        );
+
+        Tester<String> tester = test(combined);
+
+        // When
+        sourceA.push(1);
+        sourceA.push(2);
+
+        // Then
+        tester.assertValues("10,100", "20,200");
+    }
+
+    @Test
+    public void combineLatestGlitchFree_SubscribedAfterValuesArePresent_EmitsOnce() throws Exception {
+        // Given
+        sourceA.push(1);
+        sourceB.push(2);
+
+        Pipe<Integer> combined = Pipes.combineLatestGlitchFree(
+                asList(
+                        Pipe.fromSource(sourceA),
+                        Pipe.fromSource(sourceB)
+                ),
+                values -> (Integer) values[0] + (Integer) values[1]
+        );
+
+        // When
+        Tester<Integer> tester = test(combined);
+
+        // Then
+        tester.assertValue(3);
+    }
+
+    @Test
+    public void combine_Transaction_EmitsOnce() throws Exception {
+        // Given
+        Pipe<String> combined = Pipes.combine(
+                Pipe.fromSource(sourceA),
+                Pipe.fromSource(sourceB),
+                Pipe.fromSource(sourceC),
+                (a, b, c) -> String.valueOf(a + b + c)
+        );
+
+        Tester<String> tester = test(combined);
+
+        sourceA.push(1);
+        sourceB.push(2);
+        sourceC.push(3);
+
+        // When
+        Pipes.transaction(() -> {
+            sourceA.push(0);
+            sourceB.push(0);
+            sourceC.push(0);
+        });
+
+        // Then
+        tester.assertValues("6", "0");
+    }
+
+    @Test
+    public void transaction_Nested_EmitsWhenOutermostIsFinished() throws Exception {
+        // Given
+        Pipe<Integer> combined = Pipes.combineLatestGlitchFree(
+                asList(
+                        Pipe.fromSource(sourceA),
+                        Pipe.fromSource(sourceB)
+                ),
+                values -> (Integer) values[0] + (Integer) values[1]
+        );
+
+        Tester<Integer> tester = test(combined);
+
+        // When
+        Pipes.transaction(() -> {
+            sourceA.push(1);
+
+            Pipes.transaction(() -> sourceB.push(2));
+
+            sourceA.push(10);
+        });
+
+        // Then
+        tester.assertValue(12);
+    }
+
+    @Test
+    public void transaction_DeferredEmissionThrows_OtherCombinesStillEmit() throws Exception {
+        // Given
+        AtomicInteger failingCalls = new AtomicInteger();
+
+        Pipes.combineLatestGlitchFree(
+                asList(Pipe.fromSource(sourceA)),
+                values -> values[0]
+        ).subscribe(value -> {
+            if (failingCalls.incrementAndGet() == 1) {
+                throw new IllegalStateException("Consumer failed");
+            }
+        });
+
+        Tester<Object> tester = test(Pipes.combineLatestGlitchFree(
+                asList(Pipe.fromSource(sourceB)),
+                values -> values[0]
+        ));
+
+        // When
+        try {
+            Pipes.transaction(() -> {
+                sourceA.push(1);
+                sourceB.push(1);
+            });
+        } catch (IllegalStateException ignored) {
+            // Rethrown once the transaction is done
+        }
+
+        sourceA.push(2);
+        sourceB.push(2);
+
+        // Then
+        tester.assertValues(1, 2);
+        assertEquals(2, failingCalls.get());
+    }
+
+    @Test
+    public void transaction_PlainPipesReceiveEveryValue() throws Exception {
+        // Given
+        Tester<Integer> tester = test(Pipe.fromSource(sourceA));
+
+        // When
+        Pipes.transaction(() -> {
+            sourceA.push(1);
+            sourceA.push(2);
+        });
+
+        // Then
+        tester.assertValues(1, 2);
+    }
+
+    @Test
+    public void derived_NoSubscribers_MapperIsNotCalled() throws Exception {
+        // Given
+        AtomicInteger mapperCalls = new AtomicInteger();
+
+        Pipes.derived(
+                Pipe.fromSource(sourceA),
+                Pipe.fromSource(sourceB),
+                Pipe.fromSource(sourceC),
+                (a, b, c) -> mapperCalls.incrementAndGet()
+        );
+
+        // When
+        sourceA.push(1);
+        sourceB.push(2);
+        sourceC.push(3);
+
+        // Then
+        assertEquals(0, mapperCalls.get());
+    }
+
+    @Test
+    public void derived_InputsDidNotChange_MapperIsNotCalledAgain() throws Exception {
+        // Given
+        AtomicInteger mapperCalls = new AtomicInteger();
+        sourceA.push(1);
+        sourceB.push(2);
+        sourceC.push(3);
+
+        Tester<Integer> tester = test(Pipes.derived(
+                Pipe.fromSource(sourceA),
+                Pipe.fromSource(sourceB),
+                Pipe.fromSource(sourceC),
+                (a, b, c) -> {
+                    mapperCalls.incrementAndGet();
+                    return a + b + c;
+                }
+        ));
+
+        // When
+        sourceA.push(1);
+        sourceB.push(2);
+        sourceB.push(5);
+
+        // Then
+        tester.assertValues(6, 6, 6, 9);
+        assertEquals(2, mapperCalls.get());
+    }
+
+    @Test
+    public void derived_Resubscribe_InputsDidNotChange_CachedValueIsEmitted() throws Exception {
+        // Given
+        AtomicInteger mapperCalls = new AtomicInteger();
+        sourceA.push(1);
+        sourceB.push(2);
+        sourceC.push(3);
+
+        Pipe<Integer> derived = Pipes.derived(
+                Pipe.fromSource(sourceA),
+                Pipe.fromSource(sourceB),
+                Pipe.fromSource(sourceC),
+                (a, b, c) -> {
+                    mapperCalls.incrementAndGet();
+                    return a + b + c;
+                }
+        );
+
+        derived.subscribe(value -> {
+        }).unsubscribe();
+
+        // When
+        Tester<Integer> tester = test(derived);
+
+        // Then
+        tester.assertValue(6);
+        assertEquals(1, mapperCalls.get());
+    }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,53 @@
+package com.example.pipe;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs actors on separate threads, releasing them at the same moment so that their actions
+ * interleave as much as possible. Meant to be repeated many times, in the spirit of jcstress.
+ */
+final class Race {
+
+    private Race() {
+    }
+
+    /**
+     * Runs the actor on the given number of threads and waits for all of them to finish.
+     *
+     * @param actor receives index of the thread it runs on.
+     */
+    static void run(int threads, Action1<Integer> actor) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Thread> started = new ArrayList<>();
+
+        for (int i = 0; i < threads; i++) {
+            int index = i;
+
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    actor.call(index);
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            });
+            thread.start();
+            started.add(thread);
+        }
+
+        start.countDown();
+
+        for (Thread thread : started) {
+            thread.join();
+        }
+
+        if (failure.get() != null) {
+            throw new AssertionError("Actor failed", failure.get());
+        }
+    }
+
+}
@@ -0,0 +1,298 @@
+package com.example.pipe;
+
+import org.junit.Test;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+
+public class ReactiveStreamsTest {
+
+    Source<String> source = new Source<>();
+    TestSubscriber subscriber = new TestSubscriber();
+
+    @Test
+    public void toPublisher_NoDemand_NothingDelivered() throws Exception {
+        // Given
+        ReactiveStreams.toPublisher(Pipe.fromSource(source), 10, OverflowPolicy.DROP_OLDEST)
+                .subscribe(subscriber);
+
+        // When
+        source.push("A");
+
+        // Then
+        assertEquals(emptyList(), subscriber.received);
+    }
+
+    @Test
+    public void toPublisher_Request_DeliversQueuedValuesUpToDemand() throws Exception {
+        // Given
+        ReactiveStreams.toPublisher(Pipe.fromSource(source), 10, OverflowPolicy.DROP_OLDEST)
+                .subscribe(subscriber);
+
+        source.push("A");
+        source.push("B");
+        source.push("C");
+
+        // When
+        subscriber.subscription.request(2);
+
+        // Then
+        assertEquals(asList("A", "B"), subscriber.received);
+
+        subscriber.subscription.request(2);
+        source.push("D");
+        source.push("E");
+        assertEquals(asList("A", "B", "C", "D"), subscriber.received);
+    }
+
+    @Test
+    public void toPublisher_LatestValueOfPipe_DeliveredOnRequest() throws Exception {
+        // Given
+        Publisher<String> publisher = ReactiveStreams.toPublisher(
+                Pipe.constant("A"),
+                10,
+                OverflowPolicy.DROP_OLDEST
+        );
+
+        publisher.subscribe(subscriber);
+
+        // When
+        subscriber.subscription.request(1);
+
+        // Then
+        assertEquals(singletonList("A"), subscriber.received);
+    }
+
+    @Test
+    public void toPublisher_QueueFull_OldestValuesDropped() throws Exception {
+        // Given
+        ReactiveStreams.toPublisher(Pipe.fromSource(source), 2, OverflowPolicy.DROP_OLDEST)
+                .subscribe(subscriber);
+
+        source.push("A");
+        source.push("B");
+        source.push("C");
+
+        // When
+        subscriber.subscription.request(Long.MAX_VALUE);
+
+        // Then
+        assertEquals(asList("B", "C"), subscriber.received);
+    }
+
+    @Test
+    public void toPublisher_QueueFullWithErrorPolicy_SubscriberFailsAndIsDisconnected() throws Exception {
+        // Given
+        ReactiveStreams.toPublisher(Pipe.fromSource(source), 1, OverflowPolicy.ERROR)
+                .subscribe(subscriber);
+
+        source.push("A");
+
+        // When
+        source.push("B");
+
+        // Then
+        assertTrue(subscriber.error instanceof IllegalStateException);
+        assertEquals(0, source.consumerCount());
+    }
+
+    @Test
+    public void toPublisher_NonPositiveRequest_SubscriberFails() throws Exception {
+        // Given
+        ReactiveStreams.toPublisher(Pipe.fromSource(source), 10, OverflowPolicy.DROP_OLDEST)
+                .subscribe(subscriber);
+
+        // When
+        subscriber.subscription.request(0);
+
+        // Then
+        assertTrue(subscriber.error instanceof IllegalArgumentException);
+        assertEquals(0, source.consumerCount());
+    }
+
+    @Test
+    public void toPublisher_Cancel_DisconnectsFromSource() throws Exception {
+        // Given
+        ReactiveStreams.toPublisher(Pipe.fromSource(source), 10, OverflowPolicy.DROP_OLDEST)
+                .subscribe(subscriber);
+
+        subscriber.subscription.request(Long.MAX_VALUE);
+
+        // When
+        subscriber.subscription.cancel();
+        source.push("A");
+
+        // Then
+        assertEquals(emptyList(), subscriber.received);
+        assertEquals(0, source.consumerCount());
+    }
+
+    @Test
+    public void toPublisher_RequestFromOnNext_ValuesDeliveredInOrder() throws Exception {
+        // Given
+        TestSubscriber oneByOne = new TestSubscriber() {
+            @Override
+            public void onNext(String value) {
+                super.onNext(value);
+                subscription.request(1);
+            }
+        };
+
+        ReactiveStreams.toPublisher(Pipe.fromSource(source), 10, OverflowPolicy.DROP_OLDEST)
+                .subscribe(oneByOne);
+
+        source.push("A");
+        source.push("B");
+
+        // When
+        oneByOne.subscription.request(1);
+        source.push("C");
+
+        // Then
+        assertEquals(asList("A", "B", "C"), oneByOne.received);
+    }
+
+    @Test
+    public void fromPublisher_RequestsInBatches() throws Exception {
+        // Given
+        TestPublisher publisher = new TestPublisher();
+        List<String> received = new ArrayList<>();
+
+        Pipe<String> pipe = ReactiveStreams.fromPublisher(publisher, 4, error -> {
+        });
+
+        // When
+        pipe.subscribe(received::add);
+        publisher.emit("A", "B", "C");
+
+        // Then
+        assertEquals(asList("A", "B", "C"), received);
+        assertEquals(asList(4L, 3L), publisher.requests);
+    }
+
+    @Test
+    public void fromPublisher_LastUnsubscribe_CancelsSubscription() throws Exception {
+        // Given
+        TestPublisher publisher = new TestPublisher();
+
+        Pipe<String>.Subscription subscription = ReactiveStreams.fromPublisher(publisher, 4, error -> {
+        }).subscribe(value -> {
+        });
+
+        // When
+        subscription.unsubscribe();
+
+        // Then
+        assertTrue(publisher.cancelled);
+    }
+
+    @Test
+    public void fromPublisher_PublisherFails_ErrorPassedToCallback() throws Exception {
+        // Given
+        TestPublisher publisher = new TestPublisher();
+        List<Throwable> errors = new ArrayList<>();
+
+        ReactiveStreams.fromPublisher(publisher, 4, errors::add)
+                .subscribe(value -> {
+                });
+
+        Exception error = new Exception();
+
+        // When
+        publisher.subscriber.onError(error);
+
+        // Then
+        assertEquals(singletonList(error), errors);
+    }
+
+    @Test
+    public void roundTrip_ValuesPassThrough() throws Exception {
+        // Given
+        List<String> received = new ArrayList<>();
+
+        Pipe<String> pipe = ReactiveStreams.fromPublisher(
+                ReactiveStreams.toPublisher(Pipe.fromSource(source), 2, OverflowPolicy.BLOCK),
+                2,
+                error -> {
+                }
+        );
+
+        pipe.subscribe(received::add);
+
+        // When
+        for (int i = 0; i < 5; i++) {
+            source.push(String.valueOf(i));
+        }
+
+        // Then
+        assertEquals(asList("0", "1", "2", "3", "4"), received);
+    }
+
+    static class TestSubscriber implements Subscriber<String> {
+
+        final List<String> received = new ArrayList<>();
+        Subscription subscription;
+        Throwable error;
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(String value) {
+            received.add(value);
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            this.error = error;
+        }
+
+        @Override
+        public void onComplete() {
+        }
+
+    }
+
+    static class TestPublisher implements Publisher<String>, Subscription {
+
+        final List<Long> requests = new ArrayList<>();
+        Subscriber<? super String> subscriber;
+        boolean cancelled;
+
+        @Override
+        public void subscribe(Subscriber<? super String> subscriber) {
+            this.subscriber = subscriber;
+            subscriber.onSubscribe(this);
+        }
+
+        void emit(String... values) {
+            for (String value : values) {
+                subscriber.onNext(value);
+            }
+        }
+
+        @Override
+        public void request(long n) {
+            requests.add(n);
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+
+    }
+
+}
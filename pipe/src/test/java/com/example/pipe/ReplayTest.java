@@ -0,0 +1,143 @@
+package com.example.pipe;
+
+import org.junit.Test;
+
+import static com.example.pipe.Tester.test;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+
+public class ReplayTest {
+
+    Source<String> source = new Source<>();
+    VirtualTimeScheduler scheduler = new VirtualTimeScheduler();
+
+    @Test
+    public void replay_LateSubscriber_ReceivesLastValuesInOrder() throws Exception {
+        // Given
+        Pipe<String> pipe = Pipe.fromSource(source).replay(2);
+        test(pipe);
+
+        source.push("A");
+        source.push("B");
+        source.push("C");
+
+        // When
+        Tester<String> tester = test(pipe);
+
+        // Then
+        tester.assertValues("B", "C");
+    }
+
+    @Test
+    public void replay_LateSubscriber_ReceivesNewValuesAfterHistory() throws Exception {
+        // Given
+        Pipe<String> pipe = Pipe.fromSource(source).replay(2);
+        test(pipe);
+
+        source.push("A");
+
+        // When
+        Tester<String> tester = test(pipe);
+        source.push("B");
+
+        // Then
+        tester.assertValues("A", "B");
+    }
+
+    @Test
+    public void replay_ResubscribeAfterDisconnect_HistoryKeptWithoutDuplicates() throws Exception {
+        // Given
+        Pipe<String> pipe = Pipe.fromSource(source).replay(3);
+        Pipe<String>.Subscription subscription = pipe.subscribe(value -> {
+        });
+
+        source.push("A");
+        source.push("B");
+        subscription.unsubscribe();
+
+        // When
+        Tester<String> tester = test(pipe);
+
+        // Then
+        tester.assertValues("A", "B");
+    }
+
+    @Test
+    public void replay_ResubscribeAfterDisconnect_MappedReplayOfUpstreamNotDuplicated() throws Exception {
+        // Given
+        Pipe<String> pipe = Pipe.fromSource(source)
+                .map(String::toLowerCase)
+                .replay(1);
+
+        Pipe<String>.Subscription subscription = pipe.subscribe(value -> {
+        });
+        source.push("A");
+        subscription.unsubscribe();
+
+        // When
+        Tester<String> tester = test(pipe);
+
+        // Then
+        tester.assertValue("a");
+    }
+
+    @Test
+    public void replay_ResubscribeAfterDisconnect_ColdUpstreamRepeatRecorded() throws Exception {
+        // Given
+        Pipe<String> pipe = Pipe.<String>defer(emitter -> {
+            emitter.call("A");
+            return () -> {
+            };
+        }).replay(3);
+
+        pipe.subscribe(value -> {
+        }).unsubscribe();
+
+        // When
+        Tester<String> tester = test(pipe);
+
+        // Then
+        tester.assertValues("A", "A");
+    }
+
+    @Test
+    public void replay_Window_ExpiredValuesAreNotReplayed() throws Exception {
+        // Given
+        Pipe<String> pipe = Pipe.fromSource(source).replay(100, MILLISECONDS, 10, scheduler);
+        test(pipe);
+
+        source.push("A");
+        scheduler.advanceBy(60, MILLISECONDS);
+        source.push("B");
+        scheduler.advanceBy(60, MILLISECONDS);
+
+        // When
+        Tester<String> tester = test(pipe);
+
+        // Then
+        tester.assertValue("B");
+    }
+
+    @Test
+    public void replay_Window_AtMostMaxCountValuesReplayed() throws Exception {
+        // Given
+        Pipe<String> pipe = Pipe.fromSource(source).replay(100, MILLISECONDS, 2, scheduler);
+        test(pipe);
+
+        source.push("A");
+        source.push("B");
+        source.push("C");
+
+        // When
+        Tester<String> tester = test(pipe);
+
+        // Then
+        tester.assertValues("B", "C");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void replay_NonPositiveCount_Throws() throws Exception {
+        Pipe.fromSource(source).replay(0);
+    }
+
+}
@@ -0,0 +1,213 @@
+package com.example.pipe;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.example.pipe.Tester.test;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+
+public class RetryTest {
+
+    static final String FAILURE = "failure";
+
+    VirtualTimeScheduler scheduler = new VirtualTimeScheduler();
+    AtomicInteger attempts = new AtomicInteger();
+
+    @After
+    public void tearDown() throws Exception {
+        Metrics.reset();
+    }
+
+    @Test
+    public void retry_TransientFailure_ValueOfNextAttemptEmitted() throws Exception {
+        // Given
+        Pipe<String> pipe = failingTimes(2)
+                .retry(this::isFailure, Backoff.exponential(100, 1000, MILLISECONDS, 5), scheduler);
+
+        // When
+        Tester<String> tester = test(pipe, scheduler)
+                .advanceBy(10, SECONDS);
+
+        // Then
+        tester.assertValue("value 3");
+        assertEquals(3, attempts.get());
+    }
+
+    @Test
+    public void retry_RetriesExhausted_FailureEmitted() throws Exception {
+        // Given
+        Pipe<String> pipe = failingTimes(10)
+                .retry(this::isFailure, Backoff.exponential(100, 1000, MILLISECONDS, 2), scheduler);
+
+        // When
+        Tester<String> tester = test(pipe, scheduler)
+                .advanceBy(10, SECONDS);
+
+        // Then
+        tester.assertValue(FAILURE);
+        assertEquals(3, attempts.get());
+    }
+
+    @Test
+    public void retry_BeforeBackoffElapses_NoNewAttempt() throws Exception {
+        // Given
+        Backoff backoff = new Backoff(100, 1000, 5, new MaxRandom(), null);
+        Pipe<String> pipe = failingTimes(1)
+                .retry(this::isFailure, backoff, scheduler);
+
+        // When
+        Tester<String> tester = test(pipe, scheduler)
+                .advanceBy(99, MILLISECONDS);
+
+        // Then
+        tester.assertEmpty();
+        assertEquals(1, attempts.get());
+
+        tester.advanceBy(1, MILLISECONDS);
+        tester.assertValue("value 2");
+    }
+
+    @Test
+    public void retry_Unsubscribe_PendingRetryCancelled() throws Exception {
+        // Given
+        Pipe<String> pipe = failingTimes(10)
+                .retry(this::isFailure, Backoff.exponential(100, 1000, MILLISECONDS, 5), scheduler);
+
+        Pipe<String>.Subscription subscription = pipe.subscribe(value -> {
+        });
+
+        // When
+        subscription.unsubscribe();
+
+        // Then
+        assertEquals(0, scheduler.scheduledCount());
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    public void retry_SuccessesBetweenFailures_RetriesNotRestored() throws Exception {
+        // Given
+        Pipe<String> pipe = Pipe.<String>defer(emitter -> {
+            emitter.call("value " + attempts.incrementAndGet());
+            emitter.call(FAILURE);
+
+            return () -> {
+            };
+        }).retry(this::isFailure, Backoff.exponential(100, 1000, MILLISECONDS, 2), scheduler);
+
+        // When
+        Tester<String> tester = test(pipe, scheduler)
+                .advanceBy(10, SECONDS);
+
+        // Then
+        tester.assertValues("value 1", "value 2", "value 3", FAILURE);
+        assertEquals(3, attempts.get());
+    }
+
+    @Test
+    public void retry_WithTimeout_SuccessfulAttemptNotRepeated() throws Exception {
+        // Given
+        Pipe<String> pipe = Pipe.<String>defer(emitter -> {
+            attempts.incrementAndGet();
+            emitter.call("ok");
+
+            return () -> {
+            };
+        })
+                .timeout(30, SECONDS, FAILURE, scheduler)
+                .retry(this::isFailure, Backoff.exponential(100, 1000, MILLISECONDS, 5), scheduler);
+
+        // When
+        Tester<String> tester = test(pipe, scheduler)
+                .advanceBy(600, SECONDS);
+
+        // Then
+        tester.assertValue("ok");
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    public void retry_InstrumentedBackoff_RetriesRecorded() throws Exception {
+        // Given
+        Backoff backoff = Backoff.exponential(100, 1000, MILLISECONDS, 2)
+                .instrumented("requests");
+
+        Pipe<String> pipe = failingTimes(10)
+                .retry(this::isFailure, backoff, scheduler);
+
+        // When
+        test(pipe, scheduler)
+                .advanceBy(10, SECONDS);
+
+        // Then
+        MetricsSnapshot snapshot = Metrics.snapshot("requests");
+
+        assertEquals(2, snapshot.retryCount);
+        assertEquals(1, snapshot.exhaustedRetryCount);
+    }
+
+    @Test
+    public void delay_GrowsExponentiallyUpToMax() throws Exception {
+        // Given
+        Backoff backoff = new Backoff(100, 1000, 10, new MaxRandom(), null);
+
+        // Then
+        assertEquals(100, backoff.delayMillis(0));
+        assertEquals(200, backoff.delayMillis(1));
+        assertEquals(800, backoff.delayMillis(3));
+        assertEquals(1000, backoff.delayMillis(4));
+        assertEquals(1000, backoff.delayMillis(100));
+    }
+
+    @Test
+    public void delay_Jittered_WithinBounds() throws Exception {
+        // Given
+        Backoff backoff = Backoff.exponential(100, 1000, MILLISECONDS, 10);
+
+        for (int i = 0; i < 1000; i++) {
+            // When
+            long delay = backoff.delayMillis(2);
+
+            // Then
+            assertTrue(delay >= 0 && delay <= 400);
+        }
+    }
+
+    /**
+     * @return pipe which fails the given number of times, each subscription being an attempt.
+     */
+    private Pipe<String> failingTimes(int failures) {
+        return Pipe.defer(emitter -> {
+            int attempt = attempts.incrementAndGet();
+
+            emitter.call(attempt <= failures ? FAILURE : "value " + attempt);
+
+            return () -> {
+            };
+        });
+    }
+
+    private boolean isFailure(String value) {
+        return FAILURE.equals(value);
+    }
+
+    /**
+     * Makes the backoff pick the longest possible delay.
+     */
+    static class MaxRandom extends Random {
+
+        @Override
+        public double nextDouble() {
+            return Math.nextDown(1.0);
+        }
+
+    }
+
+}
@@ -0,0 +1,281 @@
+package com.example.pipe;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+
+public class RingBufferSourceTest {
+
+    RingBufferSource<Integer> source = new RingBufferSource<>(8);
+
+    @Test
+    public void push_EachPipeReceivesAllValuesInOrder() throws Exception {
+        // Given
+        Collector first = new Collector(100);
+        Collector second = new Collector(100);
+
+        Pipe.fromSource(source).subscribe(first);
+        Pipe.fromSource(source).subscribe(second);
+
+        // When
+        for (int i = 0; i < 100; i++) {
+            source.push(i);
+        }
+
+        // Then
+        first.await();
+        second.await();
+
+        assertEquals(range(100), first.values);
+        assertEquals(range(100), second.values);
+    }
+
+    @Test
+    public void push_ValuesAreDeliveredOnConsumerThread() throws Exception {
+        // Given
+        List<Thread> threads = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch latch = new CountDownLatch(1);
+
+        Pipe.fromSource(source).subscribe(value -> {
+            threads.add(Thread.currentThread());
+            latch.countDown();
+        });
+
+        // When
+        source.push(1);
+
+        // Then
+        assertTrue(latch.await(1, TimeUnit.SECONDS));
+        assertNotEquals(Thread.currentThread(), threads.get(0));
+    }
+
+    @Test
+    public void push_ManyProducers_EveryValueIsDeliveredOnce() throws Exception {
+        // Given
+        int producers = 4;
+        int valuesPerProducer = 10_000;
+        Collector collector = new Collector(producers * valuesPerProducer);
+
+        Pipe.fromSource(source).subscribe(collector);
+
+        // When
+        List<Thread> threads = new ArrayList<>();
+        for (int producer = 0; producer < producers; producer++) {
+            int offset = producer * valuesPerProducer;
+
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < valuesPerProducer; i++) {
+                    source.push(offset + i);
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // Then
+        collector.await();
+
+        List<Integer> sorted = new ArrayList<>(collector.values);
+        Collections.sort(sorted);
+        assertEquals(range(producers * valuesPerProducer), sorted);
+    }
+
+    @Test
+    public void push_RingIsFull_ProducerWaitsForSlowestConsumer() throws Exception {
+        // Given
+        CountDownLatch release = new CountDownLatch(1);
+
+        Pipe.fromSource(source).subscribe(value -> await(release));
+
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < 20; i++) {
+                source.push(i);
+            }
+        });
+
+        // When
+        producer.start();
+        producer.join(200);
+
+        // Then
+        assertTrue(producer.isAlive());
+
+        release.countDown();
+        producer.join(1000);
+        assertFalse(producer.isAlive());
+    }
+
+    @Test
+    public void push_ConsumerThrows_ValueSkippedAndProducerNotBlocked() throws Exception {
+        // Given
+        Collector collector = new Collector(19);
+
+        Pipe.fromSource(source).subscribe(value -> {
+            if (value == 0) {
+                throw new IllegalStateException("Consumer failed");
+            }
+
+            collector.call(value);
+        });
+
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < 20; i++) {
+                source.push(i);
+            }
+        });
+
+        // When
+        producer.start();
+        producer.join(1000);
+
+        // Then
+        assertFalse(producer.isAlive());
+
+        collector.await();
+        assertEquals(range(20).subList(1, 20), collector.values);
+    }
+
+    @Test
+    public void subscribe_WhileProducerSaturatesRing_ReceivesValuesInOrderAndProducerFinishes() throws Exception {
+        // Given
+        int valueCount = 200_000;
+        List<String> failures = Collections.synchronizedList(new ArrayList<>());
+
+        Pipe.fromSource(source).subscribe(value -> {
+        });
+
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < valueCount; i++) {
+                source.push(i);
+            }
+        });
+
+        // When
+        producer.start();
+
+        while (producer.isAlive()) {
+            int[] last = {-1};
+            Pipe<Integer>.Subscription subscription = Pipe.fromSource(source).subscribe(value -> {
+                if (value <= last[0]) {
+                    failures.add(value + " after " + last[0]);
+                }
+                last[0] = value;
+            });
+            Thread.yield();
+            subscription.unsubscribe();
+        }
+
+        producer.join(5000);
+
+        // Then
+        assertFalse(producer.isAlive());
+        assertEquals(Collections.emptyList(), failures);
+    }
+
+    @Test
+    public void subscribe_ConsumerRunsOnGivenExecutor() throws Exception {
+        // Given
+        List<Runnable> tasks = new ArrayList<>();
+        RingBufferSource<Integer> source = new RingBufferSource<>(8, null, tasks::add);
+        Collector collector = new Collector(1);
+
+        Pipe.fromSource(source).subscribe(collector);
+        source.push(1);
+
+        // When
+        new Thread(tasks.get(0)).start();
+
+        // Then
+        collector.await();
+        assertEquals(1, tasks.size());
+        assertEquals(asList(1), collector.values);
+    }
+
+    @Test
+    public void subscribe_ReceivesLatestValue() throws Exception {
+        // Given
+        source.push(1);
+        source.push(2);
+
+        Collector collector = new Collector(1);
+
+        // When
+        Pipe.fromSource(source).subscribe(collector);
+
+        // Then
+        collector.await();
+        assertEquals(asList(2), collector.values);
+    }
+
+    @Test
+    public void unsubscribe_ConsumerIsRemoved() throws Exception {
+        // Given
+        Pipe<Integer>.Subscription subscription = Pipe.fromSource(source).subscribe(value -> {
+        });
+
+        // When
+        subscription.unsubscribe();
+
+        // Then
+        assertEquals(0, source.consumerCount());
+
+        for (int i = 0; i < 100; i++) {
+            source.push(i);
+        }
+    }
+
+    private static List<Integer> range(int count) {
+        List<Integer> values = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            values.add(i);
+        }
+        return values;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static class Collector implements Action1<Integer> {
+
+        final List<Integer> values = Collections.synchronizedList(new ArrayList<>());
+        private final CountDownLatch latch;
+
+        Collector(int expectedCount) {
+            latch = new CountDownLatch(expectedCount);
+        }
+
+        @Override
+        public void call(Integer value) {
+            values.add(value);
+            latch.countDown();
+        }
+
+        void await() throws InterruptedException {
+            if (!latch.await(5, TimeUnit.SECONDS)) {
+                throw new AssertionError("Received only " + values.size() + " values");
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,207 @@
+package com.example.pipe;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.example.pipe.Tester.test;
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+
+
+public class SerializedSourceTest {
+
+    private static final int ROUNDS = 200;
+    private static final int PRODUCERS = 4;
+    private static final int VALUES_PER_PRODUCER = 500;
+
+    @Test
+    public void push_SingleThread_DeliveredImmediately() throws Exception {
+        // Given
+        SerializedSource<String> source = new SerializedSource<>();
+        Tester<String> tester = test(Pipe.fromSource(source));
+
+        // When
+        source.push("a");
+        source.push("b");
+
+        // Then
+        tester.assertValues("a", "b");
+    }
+
+    @Test
+    public void push_FromConsumer_DeliveredAfterCurrentValue() throws Exception {
+        // Given
+        SerializedSource<String> source = new SerializedSource<>();
+        List<String> received = new ArrayList<>();
+
+        Pipe.fromSource(source).subscribe(value -> {
+            received.add(value);
+
+            if (value.equals("a")) {
+                source.push("b");
+            }
+        });
+
+        // When
+        source.push("a");
+
+        // Then
+        assertEquals(asList("a", "b"), received);
+    }
+
+    @Test
+    public void push_Executor_DeliveredOnExecutor() throws Exception {
+        // Given
+        List<Runnable> tasks = new ArrayList<>();
+        SerializedSource<String> source = new SerializedSource<>(null, tasks::add);
+        Tester<String> tester = test(Pipe.fromSource(source));
+
+        // When
+        source.push("a");
+        source.push("b");
+
+        // Then
+        tester.assertEmpty();
+        assertEquals(1, tasks.size());
+
+        tasks.remove(0).run();
+        tester.assertValues("a", "b");
+    }
+
+    @Test
+    public void push_ManyProducers_EachProducerOrderIsKept() throws Exception {
+        for (int round = 0; round < ROUNDS; round++) {
+            // Given
+            SerializedSource<int[]> source = new SerializedSource<>();
+            List<int[]> received = new ArrayList<>();
+            Pipe.fromSource(source).subscribe(received::add);
+
+            // When
+            Race.run(PRODUCERS, producer -> {
+                for (int i = 0; i < VALUES_PER_PRODUCER; i++) {
+                    source.push(new int[]{producer, i});
+                }
+            });
+
+            // Then
+            int[] expectedNext = new int[PRODUCERS];
+            for (int[] value : received) {
+                assertEquals(expectedNext[value[0]], value[1]);
+                expectedNext[value[0]]++;
+            }
+
+            assertEquals(PRODUCERS * VALUES_PER_PRODUCER, received.size());
+        }
+    }
+
+    @Test
+    public void push_ManyProducers_ConsumerIsNeverCalledConcurrently() throws Exception {
+        for (int round = 0; round < ROUNDS; round++) {
+            // Given
+            SerializedSource<Integer> source = new SerializedSource<>();
+            AtomicInteger inFlight = new AtomicInteger();
+            AtomicInteger maxInFlight = new AtomicInteger();
+
+            Pipe.fromSource(source).subscribe(value -> {
+                int current = inFlight.incrementAndGet();
+                maxInFlight.set(Math.max(maxInFlight.get(), current));
+                inFlight.decrementAndGet();
+            });
+
+            // When
+            Race.run(PRODUCERS, producer -> {
+                for (int i = 0; i < VALUES_PER_PRODUCER; i++) {
+                    source.push(i);
+                }
+            });
+
+            // Then
+            assertEquals(1, maxInFlight.get());
+        }
+    }
+
+    @Test
+    public void push_ConsumerThrows_LaterValuesStillDelivered() throws Exception {
+        // Given
+        SerializedSource<String> source = new SerializedSource<>();
+        List<String> received = new ArrayList<>();
+
+        Pipe.fromSource(source).subscribe(value -> {
+            received.add(value);
+
+            if (value.equals("A")) {
+                throw new IllegalStateException("Consumer failed");
+            }
+        });
+
+        // When
+        try {
+            source.push("A");
+        } catch (IllegalStateException ignored) {
+            // Rethrown to the producer
+        }
+
+        source.push("B");
+        source.push("C");
+
+        // Then
+        assertEquals(asList("A", "B", "C"), received);
+    }
+
+    @Test
+    public void push_ConsumerThrows_ValuesLeftBehindDeliveredByNextDrain() throws Exception {
+        // Given
+        List<Runnable> tasks = new ArrayList<>();
+        SerializedSource<String> source = new SerializedSource<>(null, tasks::add);
+        List<String> received = new ArrayList<>();
+
+        Pipe.fromSource(source).subscribe(value -> {
+            received.add(value);
+
+            if (value.equals("A")) {
+                source.push("B");
+                throw new IllegalStateException("Consumer failed");
+            }
+        });
+
+        source.push("A");
+
+        // When
+        try {
+            tasks.remove(0).run();
+        } catch (IllegalStateException ignored) {
+            // Rethrown to the executor
+        }
+
+        tasks.remove(0).run();
+
+        // Then
+        assertEquals(asList("A", "B"), received);
+        assertEquals(0, tasks.size());
+    }
+
+    @Test
+    public void push_ManyProducers_LatestValueIsLastDelivered() throws Exception {
+        for (int round = 0; round < ROUNDS; round++) {
+            // Given
+            SerializedSource<String> source = new SerializedSource<>();
+            AtomicReference<String> lastDelivered = new AtomicReference<>();
+            Pipe.fromSource(source).subscribe(lastDelivered::set);
+
+            // When
+            Race.run(PRODUCERS, producer -> {
+                for (int i = 0; i < VALUES_PER_PRODUCER; i++) {
+                    source.push(producer + ":" + i);
+                }
+            });
+
+            // Then
+            test(Pipe.fromSource(source)).assertValue(lastDelivered.get());
+        }
+    }
+
+}
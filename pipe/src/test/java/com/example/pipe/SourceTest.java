@@ -3,7 +3,12 @@ package com.example.pipe;
 
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static com.example.pipe.Tester.test;
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
 
 public class SourceTest {
 
@@ -33,4 +38,53 @@ public class SourceTest {
         tester.assertValue("value");
     }
 
-}
\ No newline at end of file
+    @Test
+    public void push_FromConsumer_DeliveredAfterCurrentValue() throws Exception {
+        // Given
+        Source<String> source = new Source<>();
+        Pipe<String> pipe = Pipe.fromSource(source);
+        List<String> received = new ArrayList<>();
+
+        pipe.subscribe(value -> {
+            received.add("first " + value);
+
+            if (value.equals("a")) {
+                source.push("b");
+            }
+        });
+        pipe.subscribe(value -> received.add("second " + value));
+
+        // When
+        source.push("a");
+
+        // Then
+        assertEquals(
+                asList("first a", "second a", "first b", "second b"),
+                received
+        );
+    }
+
+    @Test
+    public void push_DeepChainOfSources_DoesNotOverflowStack() throws Exception {
+        // Given
+        int depth = 100_000;
+        List<Source<Integer>> sources = new ArrayList<>();
+        for (int i = 0; i <= depth; i++) {
+            sources.add(new Source<>());
+        }
+
+        for (int i = 0; i < depth; i++) {
+            Source<Integer> next = sources.get(i + 1);
+            Pipe.fromSource(sources.get(i)).subscribe(value -> next.push(value + 1));
+        }
+
+        Tester<Integer> tester = test(Pipe.fromSource(sources.get(depth)));
+
+        // When
+        sources.get(0).push(0);
+
+        // Then
+        tester.assertValue(depth);
+    }
+
+}
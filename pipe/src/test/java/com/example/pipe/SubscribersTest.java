@@ -0,0 +1,115 @@
+package com.example.pipe;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+
+
+public class SubscribersTest {
+
+    Subscribers<Action1<String>> subscribers = new Subscribers<>();
+
+    @Test
+    public void dispatch_CallsConsumersInRegistrationOrder() throws Exception {
+        // Given
+        List<String> received = new ArrayList<>();
+
+        subscribers.add(value -> received.add("first " + value));
+        subscribers.add(value -> received.add("second " + value));
+
+        // When
+        dispatch("value");
+
+        // Then
+        assertEquals(
+                asList("first value", "second value"),
+                received
+        );
+    }
+
+    @Test
+    public void remove_ConsumerIsNoLongerCalled() throws Exception {
+        // Given
+        List<String> received = new ArrayList<>();
+
+        Subscribers.Node<Action1<String>> node = subscribers.add(value -> received.add("first " + value));
+        subscribers.add(value -> received.add("second " + value));
+
+        // When
+        subscribers.remove(node);
+        dispatch("value");
+
+        // Then
+        assertEquals(
+                singletonList("second value"),
+                received
+        );
+    }
+
+    @Test
+    public void remove_Twice_CountedOnce() throws Exception {
+        // Given
+        Subscribers.Node<Action1<String>> node = subscribers.add(value -> {
+        });
+        subscribers.add(value -> {
+        });
+
+        // When
+        subscribers.remove(node);
+        subscribers.remove(node);
+
+        // Then
+        assertEquals(1, subscribers.size());
+    }
+
+    @Test
+    public void remove_ManyConsumers_SizeStaysConsistent() throws Exception {
+        // Given
+        List<Subscribers.Node<Action1<String>>> nodes = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            nodes.add(subscribers.add(value -> {
+            }));
+        }
+
+        // When
+        for (int i = 0; i < 990; i++) {
+            subscribers.remove(nodes.get(i));
+        }
+
+        // Then
+        assertEquals(10, subscribers.size());
+    }
+
+    @Test
+    public void dispatch_ConsumerRemovesItself_OtherConsumersStillCalled() throws Exception {
+        // Given
+        List<String> received = new ArrayList<>();
+        List<Subscribers.Node<Action1<String>>> self = new ArrayList<>();
+
+        self.add(subscribers.add(value -> subscribers.remove(self.get(0))));
+        subscribers.add(received::add);
+
+        // When
+        dispatch("value");
+
+        // Then
+        assertEquals(
+                singletonList("value"),
+                received
+        );
+    }
+
+    private void dispatch(String value) {
+        for (Subscribers.Node<Action1<String>> node : subscribers.snapshot()) {
+            if (node.isActive()) {
+                node.consumer.call(value);
+            }
+        }
+    }
+
+}
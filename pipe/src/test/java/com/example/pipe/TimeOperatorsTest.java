@@ -0,0 +1,365 @@
+package com.example.pipe;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.example.pipe.Tester.test;
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static java.util.concurrent.TimeUnit.HOURS;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertEquals;
+
+
+public class TimeOperatorsTest {
+
+    Source<String> source = new Source<>();
+    VirtualTimeScheduler scheduler = new VirtualTimeScheduler();
+
+    @Test
+    public void debounce_EmitsValueAfterSilence() throws Exception {
+        // Given
+        Tester<String> tester = test(
+                Pipe.fromSource(source).debounce(100, MILLISECONDS, scheduler),
+                scheduler
+        );
+
+        // When
+        source.push("a");
+        tester.advanceBy(50, MILLISECONDS);
+        source.push("ab");
+        tester.advanceBy(50, MILLISECONDS);
+        source.push("abc");
+        tester.advanceBy(100, MILLISECONDS);
+
+        // Then
+        tester.assertValue("abc");
+    }
+
+    @Test
+    public void debounce_Unsubscribe_PendingValueIsDropped() throws Exception {
+        // Given
+        Pipe<String> pipe = Pipe.fromSource(source).debounce(100, MILLISECONDS, scheduler);
+        List<String> received = new ArrayList<>();
+
+        Pipe<String>.Subscription subscription = pipe.subscribe(received::add);
+        source.push("a");
+
+        // When
+        subscription.unsubscribe();
+        scheduler.advanceBy(100, MILLISECONDS);
+
+        // Then
+        assertEquals(emptyList(), received);
+        assertEquals(0, scheduler.scheduledCount());
+    }
+
+    @Test
+    public void debounce_HoursOfTyping_EmitsOncePerPause() throws Exception {
+        // Given
+        Tester<String> tester = test(
+                Pipe.fromSource(source).debounce(200, MILLISECONDS, scheduler),
+                scheduler
+        );
+
+        // When
+        // Word of 5 keystrokes 100 ms apart, then a pause of a second
+        long end = HOURS.toMillis(2);
+        while (scheduler.now() < end) {
+            for (int keystroke = 0; keystroke < 5; keystroke++) {
+                source.push("keystroke " + keystroke);
+                tester.advanceBy(100, MILLISECONDS);
+            }
+
+            tester.advanceBy(1000, MILLISECONDS);
+        }
+
+        // Then
+        tester.assertValueCount((int) (end / 1500));
+    }
+
+    @Test
+    public void throttleFirst_SkipsValuesWithinWindow() throws Exception {
+        // Given
+        Tester<String> tester = test(
+                Pipe.fromSource(source).throttleFirst(100, MILLISECONDS, scheduler),
+                scheduler
+        );
+
+        // When
+        source.push("a");
+        tester.advanceBy(50, MILLISECONDS);
+        source.push("b");
+        tester.advanceBy(50, MILLISECONDS);
+        source.push("c");
+        source.push("d");
+
+        // Then
+        tester.assertValues("a", "c");
+    }
+
+    @Test
+    public void sample_EmitsLatestValueOfEachPeriod() throws Exception {
+        // Given
+        Tester<String> tester = test(
+                Pipe.fromSource(source).sample(100, MILLISECONDS, scheduler),
+                scheduler
+        );
+
+        // When
+        source.push("a");
+        source.push("b");
+        tester.advanceBy(100, MILLISECONDS);
+        tester.advanceBy(100, MILLISECONDS);
+        source.push("c");
+        tester.advanceBy(100, MILLISECONDS);
+
+        // Then
+        tester.assertValues("b", "c");
+        assertEquals(0, scheduler.scheduledCount());
+    }
+
+    @Test
+    public void timeout_ValuesInTime_PassedThrough() throws Exception {
+        // Given
+        Tester<String> tester = test(
+                Pipe.fromSource(source).timeout(100, MILLISECONDS, "timeout", scheduler),
+                scheduler
+        );
+
+        // When
+        tester.advanceBy(90, MILLISECONDS);
+        source.push("a");
+        tester.advanceBy(90, MILLISECONDS);
+        source.push("b");
+        tester.advanceBy(90, MILLISECONDS);
+
+        // Then
+        tester.assertValues("a", "b");
+    }
+
+    @Test
+    public void timeout_FirstValueInTime_NoFallbackAfterwards() throws Exception {
+        // Given
+        Pipe<String> pipe = Pipe.<String>defer(emitter -> {
+            emitter.call("ok");
+            return () -> {
+            };
+        }).timeout(100, MILLISECONDS, "timeout", scheduler);
+
+        // When
+        Tester<String> tester = test(pipe, scheduler)
+                .advanceBy(1, HOURS);
+
+        // Then
+        tester.assertValue("ok");
+        assertEquals(0, scheduler.scheduledCount());
+    }
+
+    @Test
+    public void timeout_NoValueInTime_FallbackEmittedAndProducerCancelled() throws Exception {
+        // Given
+        AtomicInteger cancelCount = new AtomicInteger();
+        Pipe<String> pipe = Pipe.<String>defer(emitter -> cancelCount::incrementAndGet)
+                .timeout(100, MILLISECONDS, "timeout", scheduler);
+
+        // When
+        Tester<String> tester = test(pipe, scheduler)
+                .advanceBy(100, MILLISECONDS);
+
+        // Then
+        tester.assertValue("timeout");
+        assertEquals(1, cancelCount.get());
+    }
+
+    @Test
+    public void timeout_ValuesAfterTimeout_Ignored() throws Exception {
+        // Given
+        Tester<String> tester = test(
+                Pipe.fromSource(source).timeout(100, MILLISECONDS, "timeout", scheduler),
+                scheduler
+        );
+
+        // When
+        tester.advanceBy(100, MILLISECONDS);
+        source.push("late");
+
+        // Then
+        tester.assertValue("timeout");
+        assertEquals(0, source.consumerCount());
+    }
+
+    @Test
+    public void timeout_Unsubscribe_TimerCancelled() throws Exception {
+        // Given
+        Pipe<String>.Subscription subscription = Pipe.fromSource(source)
+                .timeout(100, MILLISECONDS, "timeout", scheduler)
+                .subscribe(value -> {
+                });
+
+        // When
+        subscription.unsubscribe();
+
+        // Then
+        assertEquals(0, scheduler.scheduledCount());
+    }
+
+    @Test
+    public void bufferTime_EmitsBatchWhenPeriodEnds() throws Exception {
+        // Given
+        Tester<List<String>> tester = test(
+                Pipe.fromSource(source).bufferTime(100, MILLISECONDS, 10, scheduler),
+                scheduler
+        );
+
+        // When
+        source.push("a");
+        tester.advanceBy(50, MILLISECONDS);
+        source.push("b");
+        tester.advanceBy(50, MILLISECONDS);
+        source.push("c");
+        tester.advanceBy(100, MILLISECONDS);
+
+        // Then
+        tester.assertValues(
+                asList("a", "b"),
+                singletonList("c")
+        );
+        assertEquals(0, scheduler.scheduledCount());
+    }
+
+    @Test
+    public void bufferTime_FullBatch_EmittedRightAway() throws Exception {
+        // Given
+        Tester<List<String>> tester = test(
+                Pipe.fromSource(source).bufferTime(100, MILLISECONDS, 2, scheduler),
+                scheduler
+        );
+
+        // When
+        source.push("a");
+        source.push("b");
+        source.push("c");
+        tester.advanceBy(100, MILLISECONDS);
+
+        // Then
+        tester.assertValues(
+                asList("a", "b"),
+                singletonList("c")
+        );
+    }
+
+    @Test
+    public void bufferTime_FullBatchDuringTimedEmission_EmittedAfterIt() throws Exception {
+        // Given
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger concurrentCalls = new AtomicInteger();
+        AtomicInteger maxConcurrentCalls = new AtomicInteger();
+        List<List<String>> received = Collections.synchronizedList(new ArrayList<>());
+
+        Pipe.fromSource(source)
+                .bufferTime(100, MILLISECONDS, 2, scheduler)
+                .subscribe(batch -> {
+                    maxConcurrentCalls.accumulateAndGet(concurrentCalls.incrementAndGet(), Math::max);
+                    received.add(batch);
+
+                    if (batch.size() == 1) {
+                        await(release);
+                    }
+
+                    concurrentCalls.decrementAndGet();
+                });
+
+        source.push("a");
+
+        Thread timer = new Thread(() -> scheduler.advanceBy(100, MILLISECONDS));
+        timer.start();
+
+        while (received.isEmpty()) {
+            Thread.yield();
+        }
+
+        // When
+        source.push("b");
+        source.push("c");
+        release.countDown();
+        timer.join(1000);
+
+        // Then
+        assertEquals(asList(singletonList("a"), asList("b", "c")), received);
+        assertEquals(1, maxConcurrentCalls.get());
+    }
+
+    @Test
+    public void bufferTime_TimerNotCancelledInTime_NextBatchNotEmittedEarly() throws Exception {
+        // Given
+        Scheduler lateCancellingScheduler = new Scheduler() {
+            @Override
+            public long now() {
+                return scheduler.now();
+            }
+
+            @Override
+            public Task schedule(Runnable task, long delayMillis) {
+                scheduler.schedule(task, delayMillis);
+                return () -> {
+                };
+            }
+        };
+
+        Tester<List<String>> tester = test(
+                Pipe.fromSource(source).bufferTime(100, MILLISECONDS, 2, lateCancellingScheduler),
+                scheduler
+        );
+
+        source.push("a");
+        source.push("b");
+        tester.advanceBy(50, MILLISECONDS);
+        source.push("c");
+
+        // When
+        tester.advanceBy(50, MILLISECONDS);
+
+        // Then
+        tester.assertValues(asList("a", "b"));
+
+        tester.advanceBy(50, MILLISECONDS);
+        tester.assertValues(asList("a", "b"), singletonList("c"));
+    }
+
+    @Test
+    public void bufferTime_Unsubscribe_PendingBatchDropped() throws Exception {
+        // Given
+        List<List<String>> received = new ArrayList<>();
+
+        Pipe<List<String>>.Subscription subscription = Pipe.fromSource(source)
+                .bufferTime(100, MILLISECONDS, 10, scheduler)
+                .subscribe(received::add);
+
+        source.push("a");
+
+        // When
+        subscription.unsubscribe();
+        scheduler.advanceBy(100, MILLISECONDS);
+
+        // Then
+        assertEquals(emptyList(), received);
+        assertEquals(0, scheduler.scheduledCount());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(1, SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
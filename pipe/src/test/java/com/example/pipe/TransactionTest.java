@@ -0,0 +1,84 @@
+package com.example.pipe;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+
+
+public class TransactionTest {
+
+    List<String> actions = new ArrayList<>();
+
+    @Test
+    public void defer_NoTransaction_NotDeferred() throws Exception {
+        // When
+        boolean deferred = Transaction.defer(() -> actions.add("deferred"));
+
+        // Then
+        assertFalse(deferred);
+        assertEquals(0, actions.size());
+    }
+
+    @Test
+    public void defer_ExecutedWhenOutermostTransactionEnds() throws Exception {
+        // When
+        Transaction.run(() -> {
+            Transaction.run(() -> Transaction.defer(() -> actions.add("deferred")));
+
+            actions.add("inner transaction ended");
+        });
+
+        // Then
+        assertEquals(
+                asList("inner transaction ended", "deferred"),
+                actions
+        );
+    }
+
+    @Test
+    public void defer_ActionsDeferredByDeferredActionsAreExecuted() throws Exception {
+        // When
+        Transaction.run(() -> Transaction.defer(
+                () -> Transaction.defer(() -> actions.add("deferred twice"))
+        ));
+
+        // Then
+        assertEquals(
+                singletonList("deferred twice"),
+                actions
+        );
+    }
+
+    @Test
+    public void dispatch_ConsumerThrows_QueuedDispatchesStillExecuted() throws Exception {
+        // Given
+        Source<String> first = new Source<>();
+        Source<String> second = new Source<>();
+
+        Pipe.fromSource(first).subscribe(value -> {
+            second.push(value);
+            throw new IllegalStateException("Consumer failed");
+        });
+        Pipe.fromSource(second).subscribe(actions::add);
+
+        // When
+        IllegalStateException thrown = null;
+        try {
+            first.push("value");
+        } catch (IllegalStateException e) {
+            thrown = e;
+        }
+
+        // Then
+        assertEquals(singletonList("value"), actions);
+        assertNotNull(thrown);
+    }
+
+}
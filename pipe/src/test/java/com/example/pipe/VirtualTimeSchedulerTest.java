@@ -0,0 +1,77 @@
+package com.example.pipe;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertEquals;
+
+
+public class VirtualTimeSchedulerTest {
+
+    VirtualTimeScheduler scheduler = new VirtualTimeScheduler();
+    List<String> executed = new ArrayList<>();
+
+    @Test
+    public void advanceBy_RunsDueTasksInOrderOfDeadlines() throws Exception {
+        // Given
+        scheduler.schedule(() -> executed.add("second"), 200);
+        scheduler.schedule(() -> executed.add("first"), 100);
+        scheduler.schedule(() -> executed.add("third"), 300);
+
+        // When
+        scheduler.advanceBy(250, MILLISECONDS);
+
+        // Then
+        assertEquals(asList("first", "second"), executed);
+        assertEquals(250, scheduler.now());
+    }
+
+    @Test
+    public void advanceTo_TaskObservesItsDeadline() throws Exception {
+        // Given
+        scheduler.schedule(() -> executed.add("at " + scheduler.now()), 100);
+
+        // When
+        scheduler.advanceTo(1, SECONDS);
+
+        // Then
+        assertEquals(asList("at 100"), executed);
+        assertEquals(1000, scheduler.now());
+    }
+
+    @Test
+    public void advanceBy_RunsTasksScheduledByOtherTasks() throws Exception {
+        // Given
+        scheduler.schedule(
+                () -> scheduler.schedule(() -> executed.add("nested"), 100),
+                100
+        );
+
+        // When
+        scheduler.advanceBy(200, MILLISECONDS);
+
+        // Then
+        assertEquals(asList("nested"), executed);
+    }
+
+    @Test
+    public void cancel_TaskDoesNotRun() throws Exception {
+        // Given
+        Scheduler.Task task = scheduler.schedule(() -> executed.add("cancelled"), 100);
+
+        // When
+        task.cancel();
+        scheduler.advanceBy(100, MILLISECONDS);
+
+        // Then
+        assertEquals(emptyList(), executed);
+        assertEquals(0, scheduler.scheduledCount());
+    }
+
+}